@@ -4,15 +4,19 @@ import lombok.AllArgsConstructor;
 import org.springframework.http.HttpMethod;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
 import ru.practicum.shareit.booking.model.AccessLevel;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingInputDto;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingCursor;
 import ru.practicum.shareit.booking.model.StateEnumConverter;
+import ru.practicum.shareit.booking.service.BookingExporter;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.logger.Logger;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
@@ -23,14 +27,17 @@ import java.util.List;
 @RequestMapping(path = "/bookings")
 @AllArgsConstructor
 public class BookingController {
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final BookingService bookingService;
     private final StateEnumConverter converter;
     private final BookingMapper bookingMapper;
+    private final BookingExporter bookingExporter;
 
     @PostMapping    // Добавление нового запроса на бронирование.
     BookingDto addBooking(@RequestHeader("X-Sharer-User-Id") long userId,
                           @Valid @RequestBody BookingInputDto bookingInputDto) {
-        Logger.logRequest(HttpMethod.POST, "/bookings", bookingInputDto.toString());
+        Logger.logRequest(HttpMethod.POST, "/bookings", bookingInputDto);
         return bookingService.addBooking(userId, bookingInputDto);
     }
 
@@ -56,9 +63,16 @@ public class BookingController {
                                               int from,
                                               @RequestParam(defaultValue = "10", required = false)
                                               @Positive(message = "Значение size не должно быть отрицательным")
-                                              int size) {
+                                              int size,
+                                              @RequestParam(required = false) String after,
+                                              HttpServletResponse response) {
         Logger.logRequest(HttpMethod.GET, "/bookings" + "?state=" + state, "no body");
-        return bookingService.getBookingsOfCurrentUser(converter.convert(state), userId, from, size);
+        List<BookingDto> bookings = after == null
+                ? bookingService.getBookingsOfCurrentUser(converter.convert(state), userId, from, size)
+                : bookingService.getBookingsOfCurrentUser(converter.convert(state), userId,
+                BookingCursor.decode(after), size);
+        setNextCursor(response, bookings, size);
+        return bookings;
     }
 
     // Получение списка бронирований для всех вещей текущего пользователя-владельца (можно делать выборку по статусу)
@@ -70,8 +84,39 @@ public class BookingController {
                                         int from,
                                         @RequestParam(defaultValue = "10", required = false)
                                         @Positive(message = "Значение size не должно быть отрицательным")
-                                        int size) {
+                                        int size,
+                                        @RequestParam(required = false) String after,
+                                        HttpServletResponse response) {
         Logger.logRequest(HttpMethod.GET, "/bookings" + "/owner?state=" + state, "no body");
-        return bookingService.getBookingsOfOwner(converter.convert(state), userId, from, size);
+        List<BookingDto> bookings = after == null
+                ? bookingService.getBookingsOfOwner(converter.convert(state), userId, from, size)
+                : bookingService.getBookingsOfOwner(converter.convert(state), userId,
+                BookingCursor.decode(after), size);
+        setNextCursor(response, bookings, size);
+        return bookings;
+    }
+
+    @GetMapping("/export")   // Выгрузка всех бронирований текущего пользователя в NDJSON без постраничного обхода
+    WebAsyncTask<Void> exportBookingsOfCurrentUser(@RequestParam(defaultValue = "ALL") String state,
+                                                   @RequestHeader("X-Sharer-User-Id") long userId,
+                                                   HttpServletResponse response) {
+        Logger.logRequest(HttpMethod.GET, "/bookings/export" + "?state=" + state, "no body");
+        return bookingExporter.exportBookingsOfCurrentUser(converter.convert(state), userId, response);
+    }
+
+    @GetMapping("/owner/export")   // Выгрузка всех бронирований вещей текущего пользователя-владельца в NDJSON
+    WebAsyncTask<Void> exportBookingsOfOwner(@RequestParam(defaultValue = "ALL") String state,
+                                             @RequestHeader("X-Sharer-User-Id") long userId,
+                                             HttpServletResponse response) {
+        Logger.logRequest(HttpMethod.GET, "/bookings/owner/export" + "?state=" + state, "no body");
+        return bookingExporter.exportBookingsOfOwner(converter.convert(state), userId, response);
+    }
+
+    // Курсор следующей страницы отдаётся, только если текущая страница заполнена целиком
+    private void setNextCursor(HttpServletResponse response, List<BookingDto> bookings, int size) {
+        if (bookings.size() == size) {
+            BookingDto last = bookings.get(bookings.size() - 1);
+            response.setHeader(NEXT_CURSOR_HEADER, new BookingCursor(last.getStart(), last.getId()).encode());
+        }
     }
 }
@@ -0,0 +1,57 @@
+package ru.practicum.shareit.booking.controller;
+
+import lombok.AllArgsConstructor;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.StateEnumConverter;
+import ru.practicum.shareit.booking.service.BookingReactiveService;
+import ru.practicum.shareit.logger.Logger;
+
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
+
+/**
+ * Потоковые списки бронирований. По умолчанию (и при Accept: application/x-ndjson) ответ отдаётся построчно
+ * по мере чтения из БД: следующая строка запрашивается у R2DBC только после записи предыдущей в сокет,
+ * а поток запроса освобождается сразу после вызова метода. При Accept: application/json выборка
+ * собирается в массив.
+ */
+@Validated
+@RestController
+@RequestMapping(path = "/v2/bookings", produces = {MediaType.APPLICATION_NDJSON_VALUE,
+        MediaType.APPLICATION_JSON_VALUE})
+@AllArgsConstructor
+public class BookingReactiveController {
+    private final BookingReactiveService bookingService;
+    private final StateEnumConverter converter;
+
+    @GetMapping
+    Flux<BookingDto> getBookingsOfCurrentUser(@RequestParam(defaultValue = "ALL") String state,
+                                              @RequestHeader("X-Sharer-User-Id") long userId,
+                                              @RequestParam(defaultValue = "0")
+                                              @PositiveOrZero(message = "Передаваемые параметры меньше нуля")
+                                              int from,
+                                              @RequestParam(required = false)
+                                              @Positive(message = "Значение size не должно быть отрицательным")
+                                              Integer size) {
+        Logger.logRequest(HttpMethod.GET, "/v2/bookings" + "?state=" + state, "no body");
+        return bookingService.getBookingsOfCurrentUser(converter.convert(state), userId, from, size);
+    }
+
+    @GetMapping("/owner")
+    Flux<BookingDto> getBookingsOfOwner(@RequestParam(defaultValue = "ALL") String state,
+                                        @RequestHeader("X-Sharer-User-Id") long userId,
+                                        @RequestParam(defaultValue = "0")
+                                        @PositiveOrZero(message = "Передаваемые параметры меньше нуля")
+                                        int from,
+                                        @RequestParam(required = false)
+                                        @Positive(message = "Значение size не должно быть отрицательным")
+                                        Integer size) {
+        Logger.logRequest(HttpMethod.GET, "/v2/bookings" + "/owner?state=" + state, "no body");
+        return bookingService.getBookingsOfOwner(converter.convert(state), userId, from, size);
+    }
+}
@@ -1,29 +1,47 @@
 package ru.practicum.shareit.booking.mapper;
 
-import org.modelmapper.ModelMapper;
 import org.springframework.stereotype.Component;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoShort;
 import ru.practicum.shareit.booking.dto.BookingInputDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.mapper.UserMapper;
 
 @Component
 public class BookingMapper {
-    private final ModelMapper modelMapper;
+    private final ItemMapper itemMapper;
+    private final UserMapper userMapper;
 
     public BookingMapper() {
-        modelMapper = new ModelMapper();
+        itemMapper = new ItemMapper();
+        userMapper = new UserMapper();
     }
 
     public BookingDto convertToDto(Booking booking) {
-        return modelMapper.map(booking, BookingDto.class);
+        return BookingDto.builder()
+                .id(booking.getId())
+                .item(booking.getItem() == null ? null : itemMapper.convertToDto(booking.getItem()))
+                .booker(booking.getBooker() == null ? null : userMapper.convertToDto(booking.getBooker()))
+                .status(booking.getStatus())
+                .start(booking.getStart())
+                .end(booking.getEnd())
+                .build();
     }
 
     public BookingDtoShort convertToDtoShort(Booking booking) {
-        return modelMapper.map(booking, BookingDtoShort.class);
+        return new BookingDtoShort(booking.getId(),
+                booking.getItem() == null ? null : itemMapper.convertToDto(booking.getItem()),
+                booking.getBooker() == null ? 0 : booking.getBooker().getId(), booking.getStart(), booking.getEnd());
     }
 
-    public Booking convertFromDto(BookingInputDto bookingInputDto) {
-        return modelMapper.map(bookingInputDto, Booking.class);
+    public Booking convertFromDto(BookingInputDto bookingInputDto) {   // Вещь заполняется только id
+        return Booking.builder()
+                .id(bookingInputDto.getId())
+                .item(Item.builder().id(bookingInputDto.getItemId()).build())
+                .start(bookingInputDto.getStart())
+                .end(bookingInputDto.getEnd())
+                .build();
     }
 }
@@ -0,0 +1,53 @@
+package ru.practicum.shareit.booking.model;
+
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Завершённое бронирование, перенесённое архивацией из bookings в bookings_archive.
+ * Статус всегда COMPLETED, фаза — PAST, поэтому в таблице они не хранятся.
+ */
+@Entity
+@Immutable
+@Table(name = "bookings_archive")
+@NamedEntityGraph(name = ArchivedBooking.WITH_ITEM_AND_BOOKER,
+        attributeNodes = {@NamedAttributeNode(value = "item", subgraph = "item"), @NamedAttributeNode("booker")},
+        subgraphs = {
+                @NamedSubgraph(name = "item", attributeNodes = @NamedAttributeNode(value = "request",
+                        subgraph = "request")),
+                @NamedSubgraph(name = "request", attributeNodes = @NamedAttributeNode("author"))
+        })
+@Getter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedBooking {
+    public static final String WITH_ITEM_AND_BOOKER = "ArchivedBooking.withItemAndBooker";
+
+    @Id
+    private long id;
+    @ToString.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "item_id")
+    private Item item;
+    @ToString.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "booker_id")
+    private User booker;
+    @Column(name = "owner_id")
+    private long ownerId;
+    @Column(name = "start_booking")
+    private LocalDateTime start;
+    @Column(name = "end_booking")
+    private LocalDateTime end;
+
+    // Отдельный объект, не связанный с контекстом персистентности: сохранять его нельзя, только читать
+    public Booking toBooking() {
+        return new Booking(id, item, booker, ownerId, Status.COMPLETED, start, end, Phase.PAST);
+    }
+}
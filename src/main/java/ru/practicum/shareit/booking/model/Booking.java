@@ -9,6 +9,13 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "bookings")
+@NamedEntityGraph(name = Booking.WITH_ITEM_AND_BOOKER,
+        attributeNodes = {@NamedAttributeNode(value = "item", subgraph = "item"), @NamedAttributeNode("booker")},
+        subgraphs = {
+                @NamedSubgraph(name = "item", attributeNodes = @NamedAttributeNode(value = "request",
+                        subgraph = "request")),
+                @NamedSubgraph(name = "request", attributeNodes = @NamedAttributeNode("author"))
+        })
 @Getter
 @Setter
 @ToString
@@ -16,6 +23,9 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 public class Booking {
+    // Всё, что читает BookingMapper: вещь с запросом и его автором, арендатор
+    public static final String WITH_ITEM_AND_BOOKER = "Booking.withItemAndBooker";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private long id;
@@ -27,6 +37,9 @@ public class Booking {
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "booker_id")
     private User booker;
+    // Копия item.userId: выборки для владельца идут по индексу bookings без соединения с items
+    @Column(name = "owner_id", nullable = false, updatable = false)
+    private long ownerId;
     @Enumerated(EnumType.STRING)
     @Column(name = "status")
     private Status status;
@@ -34,4 +47,14 @@ public class Booking {
     private LocalDateTime start;
     @Column(name = "end_booking")
     private LocalDateTime end;
+    // Задаётся при сохранении и сдвигается планировщиком, фильтры PAST/CURRENT/FUTURE — равенство по индексу
+    @Enumerated(EnumType.STRING)
+    @Column(name = "phase", nullable = false)
+    private Phase phase;
+
+    @PrePersist
+    private void prePersist() {
+        ownerId = item.getUserId();
+        phase = Phase.at(start, end, LocalDateTime.now());
+    }
 }
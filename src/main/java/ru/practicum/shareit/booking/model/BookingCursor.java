@@ -0,0 +1,39 @@
+package ru.practicum.shareit.booking.model;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Позиция в списке бронирований, упорядоченном по (start desc, id desc): следующая страница начинается
+ * сразу после бронирования с этими start и id. Клиенту передаётся в виде непрозрачной строки.
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+@RequiredArgsConstructor
+public class BookingCursor {
+    private final LocalDateTime start;
+    private final long id;
+
+    public static BookingCursor decode(String source) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(source), StandardCharsets.UTF_8);
+            int separator = decoded.lastIndexOf(',');
+            return new BookingCursor(LocalDateTime.parse(decoded.substring(0, separator)),
+                    Long.parseLong(decoded.substring(separator + 1)));
+        } catch (Exception e) {
+            throw new IllegalArgumentException(String.format("Unknown cursor: %s", source));
+        }
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((start + "," + id).getBytes(StandardCharsets.UTF_8));
+    }
+}
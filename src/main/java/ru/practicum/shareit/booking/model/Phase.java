@@ -0,0 +1,18 @@
+package ru.practicum.shareit.booking.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Положение бронирования относительно текущего момента. Хранится в bookings.phase и переводится
+ * вперёд по времени {@link ru.practicum.shareit.booking.service.BookingLifecycleSweeper}.
+ */
+public enum Phase {
+    FUTURE, CURRENT, PAST;
+
+    public static Phase at(LocalDateTime start, LocalDateTime end, LocalDateTime now) {
+        if (!end.isAfter(now)) {
+            return PAST;
+        }
+        return start.isAfter(now) ? FUTURE : CURRENT;
+    }
+}
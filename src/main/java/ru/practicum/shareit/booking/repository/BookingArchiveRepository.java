@@ -0,0 +1,35 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
+
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface BookingArchiveRepository extends JpaRepository<ArchivedBooking, Long> {
+    @Override
+    @EntityGraph(ArchivedBooking.WITH_ITEM_AND_BOOKER)
+    Optional<ArchivedBooking> findById(Long id);
+
+    @Query(value = "select count(a) > 0 from ArchivedBooking a where a.item.id = ?1 and a.booker.id = ?2")
+    boolean existsByItemIdAndBookerId(long itemId, long bookerId);
+
+    List<ArchivedBooking> findAllByItemIdAndStartBeforeAndEndAfter(long itemId, LocalDateTime to, LocalDateTime from);
+
+    // Копирует бронирования в архив одним запросом, без загрузки сущностей. Без подсказки NATIVE_SPACES Hibernate
+    // не знает, какие таблицы меняет нативный запрос, и очищает все регионы кэша второго уровня. HQL insert
+    // не подходит: свойство end в его списке полей разбирается как ключевое слово
+    @Modifying
+    @QueryHints(@QueryHint(name = org.hibernate.annotations.QueryHints.NATIVE_SPACES, value = "bookings_archive"))
+    @Query(value = "insert into bookings_archive (id, item_id, booker_id, owner_id, start_booking, end_booking) " +
+            "select id, item_id, booker_id, owner_id, start_booking, end_booking from bookings where id in ?1",
+            nativeQuery = true)
+    int copyFromBookings(Collection<Long> ids);
+}
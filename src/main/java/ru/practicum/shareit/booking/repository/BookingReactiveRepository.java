@@ -0,0 +1,112 @@
+package ru.practicum.shareit.booking.repository;
+
+import io.r2dbc.spi.Row;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.State;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.reactive.ReactiveDatabase;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+
+/**
+ * Потоковые выборки бронирований через R2DBC. Фильтры по state те же, что в {@link BookingRepositoryImpl}:
+ * ALL и PAST дополняются архивом, слияние и порядок (start desc, id desc) выполняет сама СУБД.
+ */
+@Repository
+public class BookingReactiveRepository {
+    private static final String BOOKER = "booker_id = :userId";
+    private static final String OWNER = "owner_id = :userId";
+    private static final String COLUMNS = "b.id, %s AS status, b.start_booking, b.end_booking, b.item_id, "
+            + "i.name AS item_name, i.description AS item_description, i.available AS item_available, "
+            + "i.request_id AS item_request_id, b.booker_id, u.name AS booker_name, u.email AS booker_email";
+    private static final String JOINS = " JOIN items i ON i.id = b.item_id JOIN users u ON u.id = b.booker_id";
+
+    private final DatabaseClient client;
+
+    public BookingReactiveRepository(ReactiveDatabase database) {
+        client = database.getClient();
+    }
+
+    public Flux<Booking> findAllOfBooker(long bookerId, State state, long offset, Integer limit) {
+        return findAll(BOOKER, bookerId, state, offset, limit);
+    }
+
+    public Flux<Booking> findAllOfOwner(long ownerId, State state, long offset, Integer limit) {
+        return findAll(OWNER, ownerId, state, offset, limit);
+    }
+
+    private Flux<Booking> findAll(String userPredicate, long userId, State state, long offset, Integer limit) {
+        StringBuilder sql = new StringBuilder("SELECT ").append(String.format(COLUMNS, "b.status"))
+                .append(" FROM bookings b").append(JOINS)
+                .append(" WHERE b.").append(userPredicate);
+        switch (state) {
+            case WAITING:
+            case REJECTED:
+                sql.append(" AND b.status = :status");
+                break;
+            case PAST:
+            case FUTURE:
+            case CURRENT:
+                sql.append(" AND b.phase = :phase");
+                break;
+            default:
+        }
+        if (state == State.ALL || state == State.PAST) {   // В архиве только завершённые бронирования
+            sql.append(" UNION ALL SELECT ").append(String.format(COLUMNS, "'" + Status.COMPLETED + "'"))
+                    .append(" FROM bookings_archive b").append(JOINS)
+                    .append(" WHERE b.").append(userPredicate);
+        }
+        sql.append(" ORDER BY start_booking DESC, id DESC OFFSET :offset ROWS");
+        if (limit != null) {
+            sql.append(" FETCH FIRST :limit ROWS ONLY");
+        }
+
+        DatabaseClient.GenericExecuteSpec spec = client.sql(sql.toString())
+                .bind("userId", userId)
+                .bind("offset", offset);
+        switch (state) {
+            case WAITING:
+            case REJECTED:
+                spec = spec.bind("status", state.name());
+                break;
+            case PAST:
+            case FUTURE:
+            case CURRENT:
+                spec = spec.bind("phase", state.name());
+                break;
+            default:
+        }
+        if (limit != null) {
+            spec = spec.bind("limit", limit);
+        }
+        return spec.map((row, metadata) -> toBooking(row)).all();
+    }
+
+    private static Booking toBooking(Row row) {
+        Long requestId = row.get("item_request_id", Long.class);
+        return Booking.builder()
+                .id(row.get("id", Long.class))
+                .item(Item.builder()
+                        .id(row.get("item_id", Long.class))
+                        .name(row.get("item_name", String.class))
+                        .description(row.get("item_description", String.class))
+                        .available(row.get("item_available", Boolean.class))
+                        .request(requestId == null ? null : ItemRequest.builder().id(requestId).build())
+                        .build())
+                .booker(User.builder()
+                        .id(row.get("booker_id", Long.class))
+                        .name(row.get("booker_name", String.class))
+                        .email(row.get("booker_email", String.class))
+                        .build())
+                .status(Status.valueOf(row.get("status", String.class)))
+                .start(row.get("start_booking", LocalDateTime.class))
+                .end(row.get("end_booking", LocalDateTime.class))
+                .build();
+    }
+}
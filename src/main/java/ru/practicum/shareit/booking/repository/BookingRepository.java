@@ -1,45 +1,90 @@
 package ru.practicum.shareit.booking.repository;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Phase;
 import ru.practicum.shareit.booking.model.Status;
 import org.springframework.data.domain.Sort;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
-public interface BookingRepository extends JpaRepository<Booking, Long> {
-    Page<Booking> findAllByBookerId(long bookerId, Pageable pageable);
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingRepositoryCustom {
+    @Override
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    Optional<Booking> findById(Long id);
 
-    Page<Booking> findAllByBookerIdAndStatus(long bookerId, Status status, Pageable pageable);
+    // Условие по b.booker.id, а не производный запрос: иначе фильтр попадает на присоединённую таблицу users
+    // и индексы по bookings.booker_id не используются
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @Query(value = "select b from Booking b where b.booker.id = ?1 and b.status = ?2")
+    Slice<Booking> findAllByBookerIdAndStatus(long bookerId, Status status, Pageable pageable);
 
-    Page<Booking> findAllByBookerIdAndStartAfter(long bookerId, LocalDateTime localDateTime, Pageable pageable);
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @Query(value = "select b from Booking b where b.booker.id = ?1 and b.phase = ?2")
+    Slice<Booking> findAllByBookerIdAndPhase(long bookerId, Phase phase, Pageable pageable);
 
-    Page<Booking> findAllByBookerIdAndEndBefore(long bookerId, LocalDateTime localDateTime, Pageable pageable);
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @Query(value = "select b from Booking b where b.ownerId = ?1 and b.status = ?2")
+    Slice<Booking> findAllByOwnerIdAndStatus(long ownerId, Status status, Pageable pageable);
 
-    @Query(value = "select b from Booking b where b.booker.id = ?1 and b.start < ?2 and b.end > ?2")
-    Page<Booking> findAllByBookerIdAndStartBeforeAndEndAfter(long bookerId, LocalDateTime localDateTime, Pageable pageable);
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @Query(value = "select b from Booking b where b.ownerId = ?1 and b.phase = ?2")
+    Slice<Booking> findAllByOwnerIdAndPhase(long ownerId, Phase phase, Pageable pageable);
 
-    @Query(value = "select b from Booking b where b.item.userId = ?1")
-    Page<Booking> findAllByOwnerId(long ownerId, Pageable pageable);
+    // Для каждой вещи — последнее завершившееся и ближайшее будущее бронирование
+    @Query(value = "select * from (select b.*, row_number() over (partition by b.item_id " +
+            "order by b.start_booking desc) as rn from bookings b where b.item_id in ?1 and b.end_booking < ?2) " +
+            "last_bookings where last_bookings.rn = 1 " +
+            "union all " +
+            "select * from (select b.*, row_number() over (partition by b.item_id " +
+            "order by b.start_booking) as rn from bookings b where b.item_id in ?1 and b.start_booking > ?2) " +
+            "next_bookings where next_bookings.rn = 1", nativeQuery = true)
+    List<Booking> findLastAndNextByItemIdIn(Collection<Long> itemIds, LocalDateTime localDateTime);
 
-    @Query(value = "select b from Booking b where b.item.userId = ?1 and b.status = ?2")
-    Page<Booking> findAllByOwnerIdAndStatus(long ownerId, Status status, Pageable pageable);
+    List<Booking> findAllByItemIdAndStatusInAndEndAfter(long itemId, List<Status> statuses, LocalDateTime localDateTime);
 
-    @Query(value = "select b from Booking b where b.item.userId = ?1 and b.start > ?2")
-    Page<Booking> findAllByOwnerIdAndStartAfter(long ownerId, LocalDateTime localDateTime, Pageable pageable);
+    // Бронирования вещи, пересекающие период [from, to): для прошедшей части календаря занятости
+    List<Booking> findAllByItemIdAndStatusInAndStartBeforeAndEndAfter(long itemId, Collection<Status> statuses,
+                                                                      LocalDateTime to, LocalDateTime from);
 
-    @Query(value = "select b from Booking b where b.item.userId = ?1 and b.end < ?2")
-    Page<Booking> findAllByOwnerIdAndEndBefore(long ownerId, LocalDateTime localDateTime, Pageable pageable);
+    @Query(value = "select b.item.id, min(b.end) from Booking b where b.item.id in ?1 and b.end >= ?2 " +
+            "group by b.item.id")
+    List<Object[]> findEarliestEndAfterByItemIdIn(Collection<Long> itemIds, LocalDateTime localDateTime);
 
-    @Query(value = "select b from Booking b where b.item.userId = ?1 and b.start < ?2 and b.end > ?2")
-    Page<Booking> findAllByOwnerIdAndStartBeforeAndEndAfter(long bookerId, LocalDateTime localDateTime, Pageable pageable);
+    Optional<List<Booking>> findAllByItemIdAndBookerIdAndStatusIn(long itemId, long bookerId,
+                                                                  Collection<Status> statuses, Sort sort);
 
-    List<Booking> findByItemId(long itemId, Sort sort);
+    // Для планировщика: бронирования, которым пора перейти в следующую фазу, по индексам (phase, start/end)
+    @Query(value = "select b.id from Booking b where b.phase in ?1 and b.end <= ?2")
+    List<Long> findIdsByPhaseInAndEndNotAfter(Collection<Phase> phases, LocalDateTime now, Pageable pageable);
 
-    Optional<List<Booking>> findAllByItemIdAndBookerIdAndStatus(long itemId, long bookerId, Status status, Sort sort);
+    @Query(value = "select b.id from Booking b where b.phase = ?1 and b.start <= ?2")
+    List<Long> findIdsByPhaseAndStartNotAfter(Phase phase, LocalDateTime now, Pageable pageable);
+
+    @Modifying
+    @Query(value = "update Booking b set b.phase = ?2 where b.id in ?1")
+    int updatePhase(Collection<Long> ids, Phase phase);
+
+    @Modifying
+    @Query(value = "update Booking b set b.status = ?3 where b.id in ?1 and b.status = ?2")
+    int updateStatus(Collection<Long> ids, Status from, Status to);
+
+    // Для архивации: завершённые бронирования, закончившиеся до endBefore. Последнее закончившееся бронирование
+    // вещи остаётся в bookings, чтобы lastBooking вещи по-прежнему находился без обращения к архиву
+    @Query(value = "select b.id from Booking b where b.phase = ?1 and b.status = ?2 and b.end < ?3 " +
+            "and exists (select n.id from Booking n where n.item.id = b.item.id and n.start > b.start and n.end < ?4)")
+    List<Long> findIdsToArchive(Phase phase, Status status, LocalDateTime endBefore, LocalDateTime now,
+                                Pageable pageable);
+
+    @Modifying
+    @Query(value = "delete from Booking b where b.id in ?1")
+    int deleteAllByIdIn(Collection<Long> ids);
 }
@@ -0,0 +1,39 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingCursor;
+import ru.practicum.shareit.booking.model.State;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Выборки бронирований в порядке (start desc, id desc). Для ALL и PAST к бронированиям из bookings
+ * добавляются архивные из bookings_archive.
+ */
+public interface BookingRepositoryCustom {
+    /**
+     * Постраничная выборка по ключу без offset и без запроса количества.
+     * Если after равен null, возвращается первая страница.
+     */
+    List<Booking> findPageOfBooker(long bookerId, State state, BookingCursor after, int size);
+
+    List<Booking> findPageOfOwner(long ownerId, State state, BookingCursor after, int size);
+
+    /**
+     * Выборка по offset и размеру страницы из pageable; сортировка pageable не учитывается.
+     */
+    Slice<Booking> findSliceOfBooker(long bookerId, State state, Pageable pageable);
+
+    Slice<Booking> findSliceOfOwner(long ownerId, State state, Pageable pageable);
+
+    /**
+     * Вся выборка однонаправленным курсором, fetchSize строк за обращение к БД. Вызывается в транзакции,
+     * поток нужно закрыть.
+     */
+    Stream<Booking> streamAllOfBooker(long bookerId, State state, int fetchSize);
+
+    Stream<Booking> streamAllOfOwner(long ownerId, State state, int fetchSize);
+}
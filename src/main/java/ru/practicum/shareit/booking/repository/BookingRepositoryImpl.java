@@ -0,0 +1,245 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.hibernate.jpa.QueryHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import ru.practicum.shareit.booking.model.*;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Query;
+import javax.persistence.TypedQuery;
+import java.util.*;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+public class BookingRepositoryImpl implements BookingRepositoryCustom {
+    private static final String BOOKER = "b.booker.id = :userId";
+    private static final String OWNER = "b.ownerId = :userId";
+    private static final String BOOKER_COLUMN = "booker_id";
+    private static final String OWNER_COLUMN = "owner_id";
+    private static final Comparator<Booking> NEWEST_FIRST = Comparator.comparing(Booking::getStart)
+            .thenComparingLong(Booking::getId)
+            .reversed();
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Override
+    public List<Booking> findPageOfBooker(long bookerId, State state, BookingCursor after, int size) {
+        return findPage(BOOKER, BOOKER_COLUMN, bookerId, state, after, 0, size);
+    }
+
+    @Override
+    public List<Booking> findPageOfOwner(long ownerId, State state, BookingCursor after, int size) {
+        return findPage(OWNER, OWNER_COLUMN, ownerId, state, after, 0, size);
+    }
+
+    @Override
+    public Slice<Booking> findSliceOfBooker(long bookerId, State state, Pageable pageable) {
+        return findSlice(BOOKER, BOOKER_COLUMN, bookerId, state, pageable);
+    }
+
+    @Override
+    public Slice<Booking> findSliceOfOwner(long ownerId, State state, Pageable pageable) {
+        return findSlice(OWNER, OWNER_COLUMN, ownerId, state, pageable);
+    }
+
+    @Override
+    public Stream<Booking> streamAllOfBooker(long bookerId, State state, int fetchSize) {
+        return stream(BOOKER, bookerId, state, fetchSize);
+    }
+
+    @Override
+    public Stream<Booking> streamAllOfOwner(long ownerId, State state, int fetchSize) {
+        return stream(OWNER, ownerId, state, fetchSize);
+    }
+
+    private Slice<Booking> findSlice(String userPredicate, String userColumn, long userId, State state,
+                                     Pageable pageable) {
+        // Лишняя запись показывает, есть ли следующая страница
+        List<Booking> bookings = findPage(userPredicate, userColumn, userId, state, null,
+                Math.toIntExact(pageable.getOffset()), pageable.getPageSize() + 1);
+        boolean hasNext = bookings.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? bookings.subList(0, pageable.getPageSize()) : bookings, pageable, hasNext);
+    }
+
+    private List<Booking> findPage(String userPredicate, String userColumn, long userId, State state,
+                                   BookingCursor after, int offset, int size) {
+        if (state != State.ALL && state != State.PAST) {
+            return createQuery(Booking.class, Booking.WITH_ITEM_AND_BOOKER, userPredicate, userId, state, after)
+                    .setFirstResult(offset)
+                    .setMaxResults(size)
+                    .getResultList();
+        }
+        // В архиве только завершённые бронирования, они входят лишь в ALL и PAST. Слияние, порядок и страницу
+        // выбирает СУБД по одним id, как в BookingReactiveRepository, а сущности загружаются только для страницы
+        List<Long> liveIds = new ArrayList<>();
+        List<Long> archivedIds = new ArrayList<>();
+        List<Long> pageIds = new ArrayList<>();
+        for (Object row : findMergedPage(userColumn, userId, state, after, offset, size)) {
+            Object[] columns = (Object[]) row;
+            long id = ((Number) columns[0]).longValue();
+            (((Number) columns[1]).intValue() == 0 ? liveIds : archivedIds).add(id);
+            pageIds.add(id);
+        }
+        Map<Long, Booking> bookingsById = new HashMap<>();
+        if (!liveIds.isEmpty()) {
+            findAllByIdIn(Booking.class, Booking.WITH_ITEM_AND_BOOKER, liveIds)
+                    .forEach(booking -> bookingsById.put(booking.getId(), booking));
+        }
+        if (!archivedIds.isEmpty()) {
+            findAllByIdIn(ArchivedBooking.class, ArchivedBooking.WITH_ITEM_AND_BOOKER, archivedIds)
+                    .forEach(archived -> bookingsById.put(archived.getId(), archived.toBooking()));
+        }
+        List<Booking> bookings = new ArrayList<>();
+        for (Long id : pageIds) {   // Бронирование, перенесённое в архив между запросами, пропускается
+            Booking booking = bookingsById.get(id);
+            if (booking != null) {
+                bookings.add(booking);
+            }
+        }
+        return bookings;
+    }
+
+    private List<?> findMergedPage(String userColumn, long userId, State state, BookingCursor after,
+                                   int offset, int size) {
+        String cursor = after == null ? ""
+                : " AND (start_booking < :afterStart OR (start_booking = :afterStart AND id < :afterId))";
+        StringBuilder sql = new StringBuilder("SELECT id, 0 AS archived, start_booking FROM bookings WHERE ")
+                .append(userColumn).append(" = :userId");
+        if (state == State.PAST) {
+            sql.append(" AND phase = :phase");
+        }
+        sql.append(cursor)
+                .append(" UNION ALL SELECT id, 1 AS archived, start_booking FROM bookings_archive WHERE ")
+                .append(userColumn).append(" = :userId").append(cursor)
+                .append(" ORDER BY start_booking DESC, id DESC OFFSET :offset ROWS FETCH FIRST :size ROWS ONLY");
+
+        Query query = em.createNativeQuery(sql.toString())
+                .setParameter("userId", userId)
+                .setParameter("offset", offset)
+                .setParameter("size", size);
+        if (state == State.PAST) {
+            query.setParameter("phase", Phase.PAST.name());
+        }
+        if (after != null) {
+            query.setParameter("afterStart", after.getStart())
+                    .setParameter("afterId", after.getId());
+        }
+        return query.getResultList();
+    }
+
+    private <T> List<T> findAllByIdIn(Class<T> entity, String graph, Collection<Long> ids) {
+        return em.createQuery("select b from " + entity.getSimpleName() + " b where b.id in :ids", entity)
+                .setParameter("ids", ids)
+                .setHint("javax.persistence.fetchgraph", em.getEntityGraph(graph))
+                .getResultList();
+    }
+
+    private Stream<Booking> stream(String userPredicate, long userId, State state, int fetchSize) {
+        Stream<Booking> live = createQuery(Booking.class, Booking.WITH_ITEM_AND_BOOKER, userPredicate, userId,
+                state, null)
+                .setHint(QueryHints.HINT_FETCH_SIZE, fetchSize)
+                .getResultStream();
+        if (state != State.ALL && state != State.PAST) {
+            return live;
+        }
+        Stream<Booking> archived = createQuery(ArchivedBooking.class, ArchivedBooking.WITH_ITEM_AND_BOOKER,
+                userPredicate, userId, State.ALL, null)
+                .setHint(QueryHints.HINT_FETCH_SIZE, fetchSize)
+                .getResultStream()
+                .map(ArchivedBooking::toBooking);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(
+                        new MergingIterator(live.iterator(), archived.iterator()),
+                        Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(live::close)
+                .onClose(archived::close);
+    }
+
+    private <T> TypedQuery<T> createQuery(Class<T> entity, String graph, String userPredicate, long userId,
+                                          State state, BookingCursor after) {
+        StringBuilder jpql = new StringBuilder("select b from ").append(entity.getSimpleName())
+                .append(" b where ").append(userPredicate);
+        switch (state) {
+            case WAITING:
+            case REJECTED:
+                jpql.append(" and b.status = :status");
+                break;
+            case PAST:
+            case FUTURE:
+            case CURRENT:
+                jpql.append(" and b.phase = :phase");
+                break;
+            default:
+        }
+        if (after != null) {
+            jpql.append(" and (b.start < :afterStart or (b.start = :afterStart and b.id < :afterId))");
+        }
+        jpql.append(" order by b.start desc, b.id desc");
+
+        TypedQuery<T> query = em.createQuery(jpql.toString(), entity)
+                .setParameter("userId", userId)
+                .setHint("javax.persistence.fetchgraph", em.getEntityGraph(graph));
+        switch (state) {
+            case WAITING:
+            case REJECTED:
+                query.setParameter("status", Status.valueOf(state.name()));
+                break;
+            case PAST:
+            case FUTURE:
+            case CURRENT:
+                query.setParameter("phase", Phase.valueOf(state.name()));
+                break;
+            default:
+        }
+        if (after != null) {
+            query.setParameter("afterStart", after.getStart())
+                    .setParameter("afterId", after.getId());
+        }
+        return query;
+    }
+
+    /**
+     * Сливает два курсора, упорядоченных по {@link #NEWEST_FIRST}, держа в памяти только их текущие записи.
+     */
+    private static class MergingIterator implements Iterator<Booking> {
+        private final Iterator<Booking> first;
+        private final Iterator<Booking> second;
+        private Booking headOfFirst;
+        private Booking headOfSecond;
+
+        MergingIterator(Iterator<Booking> first, Iterator<Booking> second) {
+            this.first = first;
+            this.second = second;
+            headOfFirst = advance(first);
+            headOfSecond = advance(second);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return headOfFirst != null || headOfSecond != null;
+        }
+
+        @Override
+        public Booking next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Booking next;
+            if (headOfSecond == null || headOfFirst != null && NEWEST_FIRST.compare(headOfFirst, headOfSecond) <= 0) {
+                next = headOfFirst;
+                headOfFirst = advance(first);
+            } else {
+                next = headOfSecond;
+                headOfSecond = advance(second);
+            }
+            return next;
+        }
+
+        private static Booking advance(Iterator<Booking> iterator) {
+            return iterator.hasNext() ? iterator.next() : null;
+        }
+    }
+}
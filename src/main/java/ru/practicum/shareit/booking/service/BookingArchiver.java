@@ -0,0 +1,79 @@
+package ru.practicum.shareit.booking.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.model.Phase;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingArchiveRepository;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Переносит завершённые бронирования, закончившиеся раньше горизонта хранения, из bookings в bookings_archive.
+ * Перенос идёт пачками, каждая в своей транзакции: копирование в архив и удаление из bookings видны одновременно.
+ * Количество перенесённых бронирований публикуется метрикой bookings.archived.
+ */
+@Component
+public class BookingArchiver {
+    static final int BATCH_SIZE = 1000;
+
+    private final BookingRepository bookingRepository;
+    private final BookingArchiveRepository bookingArchiveRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration horizon;
+    private final Counter archived;
+    private final Supplier<LocalDateTime> clock;
+
+    @Autowired
+    public BookingArchiver(BookingRepository bookingRepository, BookingArchiveRepository bookingArchiveRepository,
+                           PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                           @Value("${shareit.booking-archive.horizon:P365D}") Duration horizon) {
+        this(bookingRepository, bookingArchiveRepository, transactionManager, meterRegistry, horizon,
+                LocalDateTime::now);
+    }
+
+    BookingArchiver(BookingRepository bookingRepository, BookingArchiveRepository bookingArchiveRepository,
+                    PlatformTransactionManager transactionManager, MeterRegistry meterRegistry, Duration horizon,
+                    Supplier<LocalDateTime> clock) {
+        this.bookingRepository = bookingRepository;
+        this.bookingArchiveRepository = bookingArchiveRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.horizon = horizon;
+        this.clock = clock;
+        this.archived = Counter.builder("bookings.archived")
+                .description("Сколько бронирований перенесено в архив")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking-archive.delay:PT1H}")
+    public void archive() {
+        LocalDateTime now = clock.get();
+        LocalDateTime endBefore = now.minus(horizon);
+        int moved;
+        do {
+            moved = transactionTemplate.execute(status -> archiveBatch(endBefore, now));
+            archived.increment(moved);
+        } while (moved == BATCH_SIZE);
+    }
+
+    private int archiveBatch(LocalDateTime endBefore, LocalDateTime now) {
+        List<Long> ids = bookingRepository.findIdsToArchive(Phase.PAST, Status.COMPLETED, endBefore, now,
+                PageRequest.of(0, BATCH_SIZE));
+        if (!ids.isEmpty()) {
+            bookingArchiveRepository.copyFromBookings(ids);
+            bookingRepository.deleteAllByIdIn(ids);
+        }
+        return ids.size();
+    }
+}
@@ -0,0 +1,222 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingArchiveRepository;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Индекс занятости вещей по бронированиям в статусах WAITING и APPROVED.
+ * Данные по вещи загружаются из БД при первом обращении, операции над одной вещью идут под её блокировкой.
+ * Закончившиеся интервалы в индексе не хранятся: прошедшая часть календаря занятости читается из БД.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookingAvailabilityIndex {
+    static final List<Status> BLOCKING_STATUSES = List.of(Status.WAITING, Status.APPROVED);
+    // В прошлом вещь занимали подтверждённые бронирования, в том числе уже завершённые планировщиком
+    static final List<Status> PAST_BLOCKING_STATUSES = List.of(Status.APPROVED, Status.COMPLETED);
+    private static final int LOCK_STRIPES = 256;
+
+    private final BookingRepository bookingRepository;
+    private final BookingArchiveRepository bookingArchiveRepository;
+    private final Map<Long, ItemTimeline> timelines = new ConcurrentHashMap<>();
+    private final ReentrantLock[] locks = createLocks();
+
+    public <T> T withItemLock(long itemId, Supplier<T> action) {
+        ReentrantLock lock = lockFor(itemId);
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean isAvailable(long itemId, LocalDateTime start, LocalDateTime end) {
+        return withItemLock(itemId, () -> !timeline(itemId).overlaps(start, end));
+    }
+
+    public BitSet busySlots(long itemId, LocalDateTime from, Duration slot, int slots) {
+        BitSet busy = withItemLock(itemId, () -> timeline(itemId).busySlots(from, slot, slots));
+        LocalDateTime now = LocalDateTime.now();
+        if (from.isBefore(now)) {
+            LocalDateTime to = from.plus(slot.multipliedBy(slots));
+            LocalDateTime pastEnd = to.isBefore(now) ? to : now;
+            ItemTimeline past = new ItemTimeline();
+            bookingRepository.findAllByItemIdAndStatusInAndStartBeforeAndEndAfter(itemId, PAST_BLOCKING_STATUSES,
+                            pastEnd, from)
+                    .forEach(booking -> past.add(booking.getStart(), booking.getEnd()));
+            bookingArchiveRepository.findAllByItemIdAndStartBeforeAndEndAfter(itemId, pastEnd, from)
+                    .forEach(archived -> past.add(archived.getStart(), archived.getEnd()));
+            busy.or(past.busySlots(from, slot, slots));
+        }
+        return busy;
+    }
+
+    public void add(long itemId, LocalDateTime start, LocalDateTime end) {
+        withItemLock(itemId, () -> {
+            timeline(itemId).add(start, end);
+            return null;
+        });
+        // Если транзакция, в которой сохранено бронирование, откатится — освобождаем интервал
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_ROLLED_BACK) {
+                        remove(itemId, start, end);
+                    }
+                }
+            });
+        }
+    }
+
+    public void remove(long itemId, LocalDateTime start, LocalDateTime end) {
+        withItemLock(itemId, () -> {
+            timeline(itemId).remove(start, end);
+            return null;
+        });
+    }
+
+    /**
+     * Убирает закончившиеся до now интервалы — при загрузке из БД они тоже не попадают в индекс, — а вещи,
+     * у которых не осталось занятых интервалов, выгружает: при следующем обращении они загрузятся заново.
+     */
+    public void prune(LocalDateTime now) {
+        for (Long itemId : timelines.keySet()) {
+            withItemLock(itemId, () -> {
+                ItemTimeline timeline = timelines.get(itemId);
+                if (timeline != null && timeline.pruneBefore(now)) {
+                    timelines.remove(itemId);
+                }
+                return null;
+            });
+        }
+    }
+
+    int size() {
+        return timelines.size();
+    }
+
+    private ItemTimeline timeline(long itemId) {
+        ItemTimeline timeline = timelines.get(itemId);
+        if (timeline == null) {
+            timeline = new ItemTimeline();
+            List<Booking> bookings = bookingRepository.findAllByItemIdAndStatusInAndEndAfter(itemId,
+                    BLOCKING_STATUSES, LocalDateTime.now());
+            for (Booking booking : bookings) {
+                timeline.add(booking.getStart(), booking.getEnd());
+            }
+            timelines.put(itemId, timeline);
+        }
+        return timeline;
+    }
+
+    private ReentrantLock lockFor(long itemId) {
+        return locks[(Long.hashCode(itemId) & Integer.MAX_VALUE) % LOCK_STRIPES];
+    }
+
+    private static ReentrantLock[] createLocks() {
+        ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        return locks;
+    }
+
+    /**
+     * Ключ — момент времени, значение — число бронирований, покрывающих интервал от этого момента
+     * до следующего ключа. Хранятся только точки, в которых покрытие меняется.
+     */
+    static class ItemTimeline {
+        private final NavigableMap<LocalDateTime, Integer> coverage = new TreeMap<>();
+
+        boolean overlaps(LocalDateTime start, LocalDateTime end) {
+            return coverageAt(start) > 0 || !coverage.subMap(start, false, end, false).isEmpty();
+        }
+
+        BitSet busySlots(LocalDateTime from, Duration slot, int slots) {
+            BitSet busy = new BitSet(slots);
+            LocalDateTime to = from.plus(slot.multipliedBy(slots));
+            LocalDateTime cursor = from;
+            int covered = coverageAt(from);
+            for (Map.Entry<LocalDateTime, Integer> entry : coverage.subMap(from, false, to, false).entrySet()) {
+                if (covered > 0) {
+                    markBusy(busy, from, slot, cursor, entry.getKey());
+                }
+                cursor = entry.getKey();
+                covered = entry.getValue();
+            }
+            if (covered > 0) {
+                markBusy(busy, from, slot, cursor, to);
+            }
+            return busy;
+        }
+
+        void add(LocalDateTime start, LocalDateTime end) {
+            shift(start, end, 1);
+        }
+
+        // Возвращает true, если после очистки в линии не осталось занятых интервалов
+        boolean pruneBefore(LocalDateTime time) {
+            int covered = coverageAt(time);
+            coverage.headMap(time, true).clear();
+            if (covered > 0) {
+                coverage.put(time, covered);
+            }
+            return coverage.isEmpty();
+        }
+
+        void remove(LocalDateTime start, LocalDateTime end) {
+            shift(start, end, -1);
+        }
+
+        private void shift(LocalDateTime start, LocalDateTime end, int delta) {
+            if (!start.isBefore(end)) {
+                return;
+            }
+            coverage.putIfAbsent(start, coverageAt(start));
+            coverage.putIfAbsent(end, coverageAt(end));
+            coverage.subMap(start, true, end, false).replaceAll((time, count) -> Math.max(count + delta, 0));
+            compact(start);
+            compact(end);
+        }
+
+        private void compact(LocalDateTime time) {
+            Map.Entry<LocalDateTime, Integer> previous = coverage.lowerEntry(time);
+            int before = previous == null ? 0 : previous.getValue();
+            if (coverage.get(time) == before) {
+                coverage.remove(time);
+            }
+        }
+
+        private static void markBusy(BitSet busy, LocalDateTime from, Duration slot,
+                                     LocalDateTime start, LocalDateTime end) {
+            long slotNanos = slot.toNanos();
+            long first = Math.floorDiv(Duration.between(from, start).toNanos(), slotNanos);
+            long last = -Math.floorDiv(-Duration.between(from, end).toNanos(), slotNanos);
+            busy.set((int) first, (int) last);
+        }
+
+        private int coverageAt(LocalDateTime time) {
+            Map.Entry<LocalDateTime, Integer> entry = coverage.floorEntry(time);
+            return entry == null ? 0 : entry.getValue();
+        }
+    }
+}
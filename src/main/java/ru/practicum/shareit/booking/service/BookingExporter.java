@@ -0,0 +1,140 @@
+package ru.practicum.shareit.booking.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.State;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exception.ServiceUnavailableException;
+import ru.practicum.shareit.logger.Logger;
+import ru.practicum.shareit.user.service.UserRegistry;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Выгрузка всей истории бронирований пользователя в NDJSON, по одному {@link BookingDto} в строке, в порядке
+ * (start desc, id desc). Бронирования читаются курсором в одной транзакции только для чтения и сразу пишутся
+ * в ответ; после каждых fetch-size записей контекст персистентности очищается, поэтому память не растёт
+ * с длиной истории. Пользователь проверяется до начала ответа, чтобы ошибка пришла обычным статусом.
+ * Выгрузка идёт асинхронно со своим временем ожидания (timeout), а не с общим для Spring MVC, которое
+ * обрывало бы длинную историю. Каждая выгрузка держит соединение с БД, поэтому одновременно их выполняется
+ * не больше max-concurrent, остальные получают 503.
+ */
+@Component
+public class BookingExporter {
+    private static final byte NEW_LINE = '\n';
+
+    private final BookingRepository bookingRepository;
+    private final UserRegistry userRegistry;
+    private final BookingMapper bookingMapper;
+    private final ObjectWriter writer;
+    private final TransactionTemplate transactionTemplate;
+    private final int fetchSize;
+    private final Duration timeout;
+    private final int maxConcurrent;
+    private final Semaphore permits;
+    @PersistenceContext
+    private EntityManager em;
+
+    public BookingExporter(BookingRepository bookingRepository, UserRegistry userRegistry,
+                           BookingMapper bookingMapper, ObjectMapper objectMapper,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${shareit.booking-export.fetch-size:500}") int fetchSize,
+                           @Value("${shareit.booking-export.timeout:PT30M}") Duration timeout,
+                           @Value("${shareit.booking-export.max-concurrent:4}") int maxConcurrent) {
+        this.bookingRepository = bookingRepository;
+        this.userRegistry = userRegistry;
+        this.bookingMapper = bookingMapper;
+        this.writer = objectMapper.writerFor(BookingDto.class);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.fetchSize = fetchSize;
+        this.timeout = timeout;
+        this.maxConcurrent = maxConcurrent;
+        this.permits = new Semaphore(maxConcurrent);
+    }
+
+    public WebAsyncTask<Void> exportBookingsOfCurrentUser(State state, long bookerId, HttpServletResponse response) {
+        userRegistry.checkExists(bookerId);
+        return start(response, "/bookings/export?state=" + state,
+                () -> bookingRepository.streamAllOfBooker(bookerId, state, fetchSize));
+    }
+
+    public WebAsyncTask<Void> exportBookingsOfOwner(State state, long ownerId, HttpServletResponse response) {
+        userRegistry.checkExists(ownerId);
+        return start(response, "/bookings/owner/export?state=" + state,
+                () -> bookingRepository.streamAllOfOwner(ownerId, state, fetchSize));
+    }
+
+    // Разрешение возвращается по окончании записи, а если задача так и не запустилась — по завершении запроса
+    private WebAsyncTask<Void> start(HttpServletResponse response, String url, Supplier<Stream<Booking>> query) {
+        if (!permits.tryAcquire()) {
+            throw new ServiceUnavailableException(String.format(
+                    "Одновременно выполняется не больше %d выгрузок, повторите запрос позже", maxConcurrent));
+        }
+        AtomicBoolean released = new AtomicBoolean();
+        Runnable release = () -> {
+            if (released.compareAndSet(false, true)) {
+                permits.release();
+            }
+        };
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        WebAsyncTask<Void> task = new WebAsyncTask<>(timeout.toMillis(), () -> {
+            try {
+                export(response.getOutputStream(), url, query);
+            } finally {
+                release.run();
+            }
+            return null;
+        });
+        task.onCompletion(release);
+        return task;
+    }
+
+    private void export(OutputStream out, String url, Supplier<Stream<Booking>> query) throws IOException {
+        Long exported;
+        try {
+            exported = transactionTemplate.execute(status -> write(out, query));
+        } catch (UncheckedIOException e) {    // Клиент закрыл соединение: курсор и транзакция уже закрыты
+            throw e.getCause();
+        }
+        Logger.logInfo(HttpMethod.GET, url, "выгружено бронирований: " + exported);
+    }
+
+    private long write(OutputStream out, Supplier<Stream<Booking>> query) {
+        long written = 0;
+        try (Stream<Booking> bookings = query.get()) {
+            Iterator<Booking> iterator = bookings.iterator();
+            while (iterator.hasNext()) {
+                out.write(writer.writeValueAsBytes(bookingMapper.convertToDto(iterator.next())));
+                out.write(NEW_LINE);
+                if (++written % fetchSize == 0) {
+                    em.clear();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return written;
+    }
+}
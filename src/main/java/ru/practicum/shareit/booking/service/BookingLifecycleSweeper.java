@@ -0,0 +1,93 @@
+package ru.practicum.shareit.booking.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.model.Phase;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Переводит бронирования в следующую фазу по мере наступления start и end: FUTURE -> CURRENT -> PAST.
+ * Подтверждённые бронирования при переходе в PAST получают статус COMPLETED. Обновление идёт пачками,
+ * каждая в своей транзакции. Отставание от текущего времени публикуется метрикой bookings.sweeper.lag.
+ */
+@Component
+public class BookingLifecycleSweeper {
+    static final int BATCH_SIZE = 1000;
+    private static final List<Phase> NOT_PAST = List.of(Phase.FUTURE, Phase.CURRENT);
+
+    private final BookingRepository bookingRepository;
+    private final BookingAvailabilityIndex availabilityIndex;
+    private final TransactionTemplate transactionTemplate;
+    private final Supplier<LocalDateTime> clock;
+    private volatile LocalDateTime sweptUntil;
+
+    @Autowired
+    public BookingLifecycleSweeper(BookingRepository bookingRepository, BookingAvailabilityIndex availabilityIndex,
+                                   PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this(bookingRepository, availabilityIndex, transactionManager, meterRegistry, LocalDateTime::now);
+    }
+
+    BookingLifecycleSweeper(BookingRepository bookingRepository, BookingAvailabilityIndex availabilityIndex,
+                            PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                            Supplier<LocalDateTime> clock) {
+        this.bookingRepository = bookingRepository;
+        this.availabilityIndex = availabilityIndex;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.clock = clock;
+        TimeGauge.builder("bookings.sweeper.lag", this, TimeUnit.SECONDS, BookingLifecycleSweeper::lagSeconds)
+                .description("Насколько фазы бронирований отстают от текущего времени")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking-sweeper.delay:PT30S}")
+    public void sweep() {
+        LocalDateTime now = clock.get();
+        int updated;
+        // Сначала закончившиеся: бронирование, пропустившее CURRENT целиком, сразу попадает в PAST
+        do {
+            updated = transactionTemplate.execute(status -> completeBatch(now));
+        } while (updated == BATCH_SIZE);
+        do {
+            updated = transactionTemplate.execute(status -> startBatch(now));
+        } while (updated == BATCH_SIZE);
+        availabilityIndex.prune(now);
+        sweptUntil = now;
+    }
+
+    double lagSeconds() {
+        LocalDateTime until = sweptUntil;
+        return until == null ? 0 : Duration.between(until, clock.get()).toMillis() / 1000.0;
+    }
+
+    private int completeBatch(LocalDateTime now) {
+        List<Long> ids = bookingRepository.findIdsByPhaseInAndEndNotAfter(NOT_PAST, now,
+                PageRequest.of(0, BATCH_SIZE));
+        if (!ids.isEmpty()) {
+            bookingRepository.updateStatus(ids, Status.APPROVED, Status.COMPLETED);
+            bookingRepository.updatePhase(ids, Phase.PAST);
+        }
+        return ids.size();
+    }
+
+    private int startBatch(LocalDateTime now) {
+        List<Long> ids = bookingRepository.findIdsByPhaseAndStartNotAfter(Phase.FUTURE, now,
+                PageRequest.of(0, BATCH_SIZE));
+        if (!ids.isEmpty()) {
+            bookingRepository.updatePhase(ids, Phase.CURRENT);
+        }
+        return ids.size();
+    }
+}
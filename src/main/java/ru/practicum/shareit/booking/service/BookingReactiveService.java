@@ -0,0 +1,14 @@
+package ru.practicum.shareit.booking.service;
+
+import reactor.core.publisher.Flux;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.State;
+
+/**
+ * Потоковое чтение бронирований для /v2/bookings. Без size выдаётся вся выборка начиная с from.
+ */
+public interface BookingReactiveService {
+    Flux<BookingDto> getBookingsOfCurrentUser(State state, long bookerId, int from, Integer size);
+
+    Flux<BookingDto> getBookingsOfOwner(State state, long ownerId, int from, Integer size);
+}
@@ -0,0 +1,32 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.State;
+import ru.practicum.shareit.booking.repository.BookingReactiveRepository;
+import ru.practicum.shareit.user.service.UserRegistry;
+
+@Service
+@AllArgsConstructor
+public class BookingReactiveServiceImpl implements BookingReactiveService {
+    private final BookingReactiveRepository bookingRepository;
+    private final UserRegistry userRegistry;
+    private final BookingMapper bookingMapper;
+
+    @Override
+    public Flux<BookingDto> getBookingsOfCurrentUser(State state, long bookerId, int from, Integer size) {
+        userRegistry.checkExists(bookerId);
+        return bookingRepository.findAllOfBooker(bookerId, state, from, size)
+                .map(bookingMapper::convertToDto);
+    }
+
+    @Override
+    public Flux<BookingDto> getBookingsOfOwner(State state, long ownerId, int from, Integer size) {
+        userRegistry.checkExists(ownerId);
+        return bookingRepository.findAllOfOwner(ownerId, state, from, size)
+                .map(bookingMapper::convertToDto);
+    }
+}
@@ -4,6 +4,7 @@ import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingInputDto;
 import ru.practicum.shareit.booking.model.AccessLevel;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingCursor;
 import ru.practicum.shareit.booking.model.State;
 
 import java.util.List;
@@ -18,4 +19,8 @@ public interface BookingService {
     List<BookingDto> getBookingsOfCurrentUser(State state, long bookerId, int from, int size);
 
     List<BookingDto> getBookingsOfOwner(State state, long ownerId, int from, int size);
+
+    List<BookingDto> getBookingsOfCurrentUser(State state, long bookerId, BookingCursor after, int size);
+
+    List<BookingDto> getBookingsOfOwner(State state, long ownerId, BookingCursor after, int size);
 }
@@ -1,9 +1,9 @@
 package ru.practicum.shareit.booking.service;
 
 import lombok.AllArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpMethod;
 import org.springframework.stereotype.Service;
@@ -11,6 +11,7 @@ import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingInputDto;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.*;
+import ru.practicum.shareit.booking.repository.BookingArchiveRepository;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exception.AccessException;
 import ru.practicum.shareit.exception.InvalidDataException;
@@ -18,9 +19,11 @@ import ru.practicum.shareit.exception.ObjectNotAvailableException;
 import ru.practicum.shareit.exception.ObjectNotFoundException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemSummaryService;
 import ru.practicum.shareit.logger.Logger;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserRegistry;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -29,10 +32,17 @@ import java.util.stream.Collectors;
 @Service
 @AllArgsConstructor
 public class BookingServiceImpl implements BookingService {
+    // id — для однозначного порядка при совпадающем start, как и в выборке по курсору
+    private static final Sort SORTED_BY_START = Sort.by("start").descending().and(Sort.by("id").descending());
+
     private final BookingRepository bookingRepository;
+    private final BookingArchiveRepository bookingArchiveRepository;
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
+    private final UserRegistry userRegistry;
     private final BookingMapper bookingMapper;
+    private final BookingAvailabilityIndex availabilityIndex;
+    private final ItemSummaryService itemSummaryService;
 
     @Override
     public BookingDto addBooking(long bookerId, BookingInputDto bookingInputDto) {
@@ -53,75 +63,88 @@ public class BookingServiceImpl implements BookingService {
         booking.setBooker(booker);
         booking.setStatus(Status.WAITING);
         booking.setItem(item);
-        Booking bookingSaved = bookingRepository.save(booking);
-        Logger.logSave(HttpMethod.POST, "/bookings", bookingSaved.toString());
+        Booking bookingSaved = availabilityIndex.withItemLock(item.getId(), () -> {
+            checkItemIsFree(booking);
+            Booking saved = bookingRepository.save(booking);
+            availabilityIndex.add(item.getId(), saved.getStart(), saved.getEnd());
+            return saved;
+        });
+        itemSummaryService.markStale(item.getId());
+        Logger.logSave(HttpMethod.POST, "/bookings", bookingSaved);
         return bookingMapper.convertToDto(bookingSaved);
     }
 
     @Override
     public BookingDto approveOrRejectBooking(long ownerId, long bookingId, boolean approved, AccessLevel accessLevel) {
-        User owner = userRepository.findById(ownerId).orElseThrow(() ->
-                new ObjectNotFoundException(String.format("Пользователь с id %s не найден", ownerId)));
-        Booking booking = getBookingById(bookingId, owner.getId(), accessLevel);
-        if (booking.getStatus().equals(Status.APPROVED)) {
+        userRegistry.checkExists(ownerId);
+        Booking booking = getBookingById(bookingId, ownerId, accessLevel);
+        if (booking.getStatus() == Status.APPROVED || booking.getStatus() == Status.COMPLETED) {
             throw new InvalidDataException(String.format("У бронирования с id %d уже стоит статус %s",
-                    bookingId, Status.APPROVED.name()));
-        }
-        if (approved) {
-            booking.setStatus(Status.APPROVED);
-        } else {
-            booking.setStatus(Status.REJECTED);
+                    bookingId, booking.getStatus().name()));
         }
-        Booking bookingSaved = bookingRepository.save(booking);
-        Logger.logSave(HttpMethod.PATCH, "/bookings/" + bookingId + "?approved=" + approved, bookingSaved.toString());
+        long itemId = booking.getItem().getId();
+        Booking bookingSaved = availabilityIndex.withItemLock(itemId, () -> {
+            Status previousStatus = booking.getStatus();
+            if (approved) {
+                if (previousStatus == Status.REJECTED) {   // Отклонённое бронирование снова занимает даты
+                    checkItemIsFree(booking);
+                }
+                // Подтверждение уже закончившегося бронирования, которое планировщик перевёл в PAST
+                booking.setStatus(booking.getPhase() == Phase.PAST ? Status.COMPLETED : Status.APPROVED);
+            } else {
+                booking.setStatus(Status.REJECTED);
+            }
+            Booking saved = bookingRepository.save(booking);
+            if (approved && previousStatus == Status.REJECTED) {
+                availabilityIndex.add(itemId, saved.getStart(), saved.getEnd());
+            } else if (!approved && previousStatus != Status.REJECTED) {
+                availabilityIndex.remove(itemId, saved.getStart(), saved.getEnd());
+            }
+            return saved;
+        });
+        itemSummaryService.markStale(itemId);
+        Logger.logSave(HttpMethod.PATCH, "/bookings/" + bookingId + "?approved=" + approved, bookingSaved);
         return bookingMapper.convertToDto(bookingSaved);
     }
 
     @Override
     public Booking getBookingById(long bookingId, long userId, AccessLevel accessLevel) {
-        User user = userRepository.findById(userId).orElseThrow(() ->
-                new ObjectNotFoundException(String.format("Пользователь с id %s не найден", userId)));
-        Booking booking = bookingRepository.findById(bookingId).orElseThrow(
-                () -> new ObjectNotFoundException(String.format("Бронирование с id %d не найдено", bookingId)));
-        if (isUnableToAccess(user.getId(), booking, accessLevel)) {
+        userRegistry.checkExists(userId);
+        Booking booking = bookingRepository.findById(bookingId)
+                .or(() -> bookingArchiveRepository.findById(bookingId).map(ArchivedBooking::toBooking))
+                .orElseThrow(() -> new ObjectNotFoundException(String.format("Бронирование с id %d не найдено",
+                        bookingId)));
+        if (isUnableToAccess(userId, booking, accessLevel)) {
             throw new AccessException(String.format("У пользователя с id %d нет прав на просмотр бронирования с id %d",
                     userId, bookingId));
         }
-        Logger.logSave(HttpMethod.GET, "/bookings/" + bookingId, booking.toString());
+        Logger.logSave(HttpMethod.GET, "/bookings/" + bookingId, booking);
         return booking;
     }
 
     @Override
     public List<BookingDto> getBookingsOfCurrentUser(State state, long bookerId, int from, int size) {
-        User booker = userRepository.findById(bookerId).orElseThrow(() ->
-                new ObjectNotFoundException(String.format("Пользователь с id %s не найден", bookerId)));
-        Pageable sortedByStart = PageRequest.of(from / size, size, Sort.by("start").descending());
-        Page<Booking> bookings;
+        userRegistry.checkExists(bookerId);
+        Pageable sortedByStart = PageRequest.of(from / size, size, SORTED_BY_START);
+        Slice<Booking> bookings;
         switch (state) {
             case WAITING:
-                bookings = bookingRepository.findAllByBookerIdAndStatus(booker.getId(),
+                bookings = bookingRepository.findAllByBookerIdAndStatus(bookerId,
                         Status.WAITING, sortedByStart);
                 break;
             case REJECTED:
-                bookings = bookingRepository.findAllByBookerIdAndStatus(booker.getId(),
+                bookings = bookingRepository.findAllByBookerIdAndStatus(bookerId,
                         Status.REJECTED, sortedByStart);
                 break;
-            case PAST:
-                bookings = bookingRepository.findAllByBookerIdAndEndBefore(booker.getId(),
-                        LocalDateTime.now(), sortedByStart);
-                break;
             case FUTURE:
-                bookings = bookingRepository.findAllByBookerIdAndStartAfter(booker.getId(),
-                        LocalDateTime.now(), sortedByStart);
-                break;
             case CURRENT:
-                bookings = bookingRepository.findAllByBookerIdAndStartBeforeAndEndAfter(booker.getId(),
-                        LocalDateTime.now(), sortedByStart);
+                bookings = bookingRepository.findAllByBookerIdAndPhase(bookerId,
+                        Phase.valueOf(state.name()), sortedByStart);
                 break;
-            default:
-                bookings = bookingRepository.findAllByBookerId(booker.getId(), sortedByStart);
+            default:    // ALL и PAST включают архивные бронирования
+                bookings = bookingRepository.findSliceOfBooker(bookerId, state, sortedByStart);
         }
-        Logger.logSave(HttpMethod.GET, "/bookings" + "?state=" + state, bookings.toString());
+        Logger.logSave(HttpMethod.GET, "/bookings" + "?state=" + state, bookings);
         return bookings.stream()
                 .map(bookingMapper::convertToDto)
                 .collect(Collectors.toList());
@@ -129,40 +152,60 @@ public class BookingServiceImpl implements BookingService {
 
     @Override
     public List<BookingDto> getBookingsOfOwner(State state, long ownerId, int from, int size) {
-        User owner = userRepository.findById(ownerId).orElseThrow(() ->
-                new ObjectNotFoundException(String.format("Пользователь с id %s не найден", ownerId)));
-        Pageable sortedByStart = PageRequest.of(from / size, size, Sort.by("start").descending());
-        Page<Booking> bookings;
+        userRegistry.checkExists(ownerId);
+        Pageable sortedByStart = PageRequest.of(from / size, size, SORTED_BY_START);
+        Slice<Booking> bookings;
         switch (state) {
             case WAITING:
-                bookings = bookingRepository.findAllByOwnerIdAndStatus(owner.getId(),
+                bookings = bookingRepository.findAllByOwnerIdAndStatus(ownerId,
                         Status.WAITING, sortedByStart);
                 break;
             case REJECTED:
-                bookings = bookingRepository.findAllByOwnerIdAndStatus(owner.getId(),
+                bookings = bookingRepository.findAllByOwnerIdAndStatus(ownerId,
                         Status.REJECTED, sortedByStart);
                 break;
-            case PAST:
-                bookings = bookingRepository.findAllByOwnerIdAndEndBefore(owner.getId(),
-                        LocalDateTime.now(), sortedByStart);
-                break;
             case FUTURE:
-                bookings = bookingRepository.findAllByOwnerIdAndStartAfter(owner.getId(),
-                        LocalDateTime.now(), sortedByStart);
-                break;
             case CURRENT:
-                bookings = bookingRepository.findAllByOwnerIdAndStartBeforeAndEndAfter(owner.getId(),
-                        LocalDateTime.now(), sortedByStart);
+                bookings = bookingRepository.findAllByOwnerIdAndPhase(ownerId,
+                        Phase.valueOf(state.name()), sortedByStart);
                 break;
-            default:
-                bookings = bookingRepository.findAllByOwnerId(owner.getId(), sortedByStart);
+            default:    // ALL и PAST включают архивные бронирования
+                bookings = bookingRepository.findSliceOfOwner(ownerId, state, sortedByStart);
         }
-        Logger.logSave(HttpMethod.GET, "/bookings" + "/owner?state=" + state, bookings.toString());
+        Logger.logSave(HttpMethod.GET, "/bookings" + "/owner?state=" + state, bookings);
         return bookings.stream()
                 .map(bookingMapper::convertToDto)
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public List<BookingDto> getBookingsOfCurrentUser(State state, long bookerId, BookingCursor after, int size) {
+        userRegistry.checkExists(bookerId);
+        List<Booking> bookings = bookingRepository.findPageOfBooker(bookerId, state, after, size);
+        Logger.logSave(HttpMethod.GET, "/bookings" + "?state=" + state + "&after=" + after, bookings);
+        return bookings.stream()
+                .map(bookingMapper::convertToDto)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<BookingDto> getBookingsOfOwner(State state, long ownerId, BookingCursor after, int size) {
+        userRegistry.checkExists(ownerId);
+        List<Booking> bookings = bookingRepository.findPageOfOwner(ownerId, state, after, size);
+        Logger.logSave(HttpMethod.GET, "/bookings" + "/owner?state=" + state + "&after=" + after,
+                bookings);
+        return bookings.stream()
+                .map(bookingMapper::convertToDto)
+                .collect(Collectors.toList());
+    }
+
+    private void checkItemIsFree(Booking booking) {
+        if (!availabilityIndex.isAvailable(booking.getItem().getId(), booking.getStart(), booking.getEnd())) {
+            throw new ObjectNotAvailableException(String.format("Вещь с id %d уже забронирована на выбранные даты.",
+                    booking.getItem().getId()));
+        }
+    }
+
     private boolean isNotValidDate(LocalDateTime startBooking, LocalDateTime endBooking) {
         return startBooking.isBefore(LocalDateTime.now()) || endBooking.isBefore(LocalDateTime.now())
                 || endBooking.isBefore(startBooking);
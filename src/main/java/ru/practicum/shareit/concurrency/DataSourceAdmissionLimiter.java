@@ -0,0 +1,38 @@
+package ru.practicum.shareit.concurrency;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Ставит перед пулом Hikari семафор на maximumPoolSize разрешений ({@link AdmissionLimitedDataSource}).
+ * Нужен в режиме виртуальных потоков: тысячи одновременных запросов ждут соединение в очереди семафора,
+ * а не в пуле, и получают отказ через shareit.db.admission.timeout вместо connectionTimeout Hikari.
+ * Включается свойством shareit.db.admission.enabled.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.db.admission.enabled", havingValue = "true")
+public class DataSourceAdmissionLimiter implements BeanPostProcessor {
+    // Размер пула Hikari по умолчанию: до запуска пула незаданный maximumPoolSize равен -1
+    private static final int DEFAULT_POOL_SIZE = 10;
+
+    private final Duration timeout;
+
+    public DataSourceAdmissionLimiter(@Value("${shareit.db.admission.timeout:PT2S}") Duration timeout) {
+        this.timeout = timeout;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof HikariDataSource) {
+            HikariDataSource dataSource = (HikariDataSource) bean;
+            int poolSize = dataSource.getMaximumPoolSize() > 0 ? dataSource.getMaximumPoolSize() : DEFAULT_POOL_SIZE;
+            return new AdmissionLimitedDataSource(dataSource, poolSize, timeout);
+        }
+        return bean;
+    }
+}
@@ -2,6 +2,7 @@ package ru.practicum.shareit.exception;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
@@ -42,4 +43,19 @@ public class ErrorHandler {
         log.warn(e.getClass().getSimpleName(), e);
         return new ErrorResponse(404, "Not Found", e.getMessage());
     }
+
+    // CannotCreateTransactionException оборачивает в том числе отказ ограничителя соединений с БД
+    // (AdmissionLimitedDataSource): это сброс нагрузки, а не ошибка сервера
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    @ExceptionHandler({ServiceUnavailableException.class, CannotCreateTransactionException.class})
+    public ErrorResponse handleServiceUnavailableException(RuntimeException e) {
+        log.warn(e.getClass().getSimpleName(), e);
+        String message;
+        if (e instanceof CannotCreateTransactionException) {
+            message = ((CannotCreateTransactionException) e).getMostSpecificCause().getMessage();
+        } else {
+            message = e.getMessage();
+        }
+        return new ErrorResponse(503, "Service Unavailable", message);
+    }
 }
\ No newline at end of file
@@ -1,17 +1,22 @@
 package ru.practicum.shareit.item.controller;
 
 import lombok.AllArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpMethod;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Granularity;
+import ru.practicum.shareit.item.model.SearchMode;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.logger.Logger;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Validated
@@ -23,14 +28,14 @@ public class ItemController {
 
     @PostMapping
     public ItemDto addItem(@RequestHeader("X-Sharer-User-Id") long userId, @Valid @RequestBody ItemDto itemDto) {
-        Logger.logRequest(HttpMethod.POST, "/items", itemDto.toString());
+        Logger.logRequest(HttpMethod.POST, "/items", itemDto);
         return itemService.addItem(userId, itemDto);
     }
 
     @PatchMapping("/{itemId}")
     public ItemDto updateItem(@RequestHeader("X-Sharer-User-Id") long userId, @PathVariable long itemId,
                               @RequestBody ItemDto itemDto) {
-        Logger.logRequest(HttpMethod.PATCH, "/items/" + itemId, itemDto.toString());
+        Logger.logRequest(HttpMethod.PATCH, "/items/" + itemId, itemDto);
         return itemService.updateItem(userId, itemId, itemDto);
     }
 
@@ -40,6 +45,21 @@ public class ItemController {
         return itemService.getItemById(itemId, userId);
     }
 
+    @GetMapping("/{itemId}/availability")  // Свободные и занятые интервалы вещи за период
+    public ItemAvailabilityDto getItemAvailability(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                   @PathVariable long itemId,
+                                                   @RequestParam
+                                                   @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                   LocalDateTime from,
+                                                   @RequestParam
+                                                   @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                   LocalDateTime to,
+                                                   @RequestParam(defaultValue = "HOUR") Granularity granularity) {
+        Logger.logRequest(HttpMethod.GET, String.format("/items/%d/availability?from=%s&to=%s&granularity=%s",
+                itemId, from, to, granularity), "пусто");
+        return itemService.getItemAvailability(userId, itemId, from, to, granularity);
+    }
+
     @GetMapping     // Просмотр владельцем списка всех его вещей с указанием названия и описания для каждой
     public List<ItemDto> getItemsByOwner(@RequestHeader("X-Sharer-User-Id") long userId,
                                          @RequestParam(defaultValue = "0")
@@ -53,14 +73,15 @@ public class ItemController {
     }
 
     @GetMapping("/search")
-    public List<ItemDto> searchItems(@RequestParam String text, @RequestParam(defaultValue = "0")
+    public List<ItemDto> searchItems(@RequestParam String text, @RequestParam(defaultValue = "text") String mode,
+                                     @RequestParam(defaultValue = "0")
                                      @PositiveOrZero(message = "Передаваемые параметры меньше нуля")
                                      int from,
                                      @RequestParam(defaultValue = "10", required = false)
                                      @Positive(message = "Значение size не должно быть отрицательным")
                                      int size) {
-        Logger.logRequest(HttpMethod.GET, "/items/search?text=" + text, "пусто");
-        return itemService.searchItems(text, from, size);
+        Logger.logRequest(HttpMethod.GET, "/items/search?text=" + text + "&mode=" + mode, "пусто");
+        return itemService.searchItems(text, SearchMode.from(mode), from, size);
     }
 
     @DeleteMapping("{itemId}")
@@ -72,7 +93,7 @@ public class ItemController {
     @PostMapping("/{itemId}/comment")
     public CommentDto addComment(@RequestHeader("X-Sharer-User-Id") long userId, @PathVariable long itemId,
                               @RequestBody @Valid CommentDto commentDto) {
-        Logger.logRequest(HttpMethod.POST, "/items/" + itemId + "/comment", commentDto.toString());
+        Logger.logRequest(HttpMethod.POST, "/items/" + itemId + "/comment", commentDto);
         return itemService.addComment(userId, itemId, commentDto);
     }
 }
\ No newline at end of file
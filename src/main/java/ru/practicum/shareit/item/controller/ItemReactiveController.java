@@ -0,0 +1,38 @@
+package ru.practicum.shareit.item.controller;
+
+import lombok.AllArgsConstructor;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemReactiveService;
+import ru.practicum.shareit.logger.Logger;
+
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
+
+/**
+ * Потоковый список вещей владельца, отдаётся так же, как в {@link
+ * ru.practicum.shareit.booking.controller.BookingReactiveController}.
+ */
+@Validated
+@RestController
+@RequestMapping(path = "/v2/items", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+@AllArgsConstructor
+public class ItemReactiveController {
+    private final ItemReactiveService itemService;
+
+    @GetMapping
+    public Flux<ItemDto> getItemsByOwner(@RequestHeader("X-Sharer-User-Id") long userId,
+                                         @RequestParam(defaultValue = "0")
+                                         @PositiveOrZero(message = "Передаваемые параметры меньше нуля")
+                                         int from,
+                                         @RequestParam(required = false)
+                                         @Positive(message = "Значение size не должно быть отрицательным")
+                                         Integer size) {
+        Logger.logRequest(HttpMethod.GET, "/v2/items", "пусто");
+        return itemService.getAllItems(userId, from, size);
+    }
+}
@@ -1,23 +1,18 @@
 package ru.practicum.shareit.item.mapper;
 
-import org.modelmapper.ModelMapper;
 import org.springframework.stereotype.Component;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.model.Comment;
 
 @Component
 public class CommentMapper {
-    private final ModelMapper modelMapper;
-
-    public CommentMapper() {
-        modelMapper = new ModelMapper();
-    }
 
     public CommentDto convertToDto(Comment comment) {
-        return modelMapper.map(comment, CommentDto.class);
+        return new CommentDto(comment.getId(), comment.getText(),
+                comment.getAuthor() == null ? null : comment.getAuthor().getName(), comment.getCreated());
     }
 
-    public Comment convertFromDto(CommentDto commentDto) {
-        return modelMapper.map(commentDto, Comment.class);
+    public Comment convertFromDto(CommentDto commentDto) {   // Вещь и автора выставляет сервис
+        return new Comment(commentDto.getId(), commentDto.getText(), null, null, commentDto.getCreated());
     }
 }
@@ -1,25 +1,54 @@
 package ru.practicum.shareit.item.mapper;
 
-import org.modelmapper.ModelMapper;
 import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.BookingDtoShort;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemSummary;
 
 @Component
 public class ItemMapper {
-    private final ModelMapper modelMapper;
 
-    public ItemMapper() {
-        modelMapper = new ModelMapper();
-        modelMapper.createTypeMap(ItemDto.class, Item.class)
-                .addMappings(modelMapper -> modelMapper.skip(Item::setUserId));
+    public ItemDto convertToDto(Item item) {
+        return ItemDto.builder()
+                .id(item.getId())
+                .name(item.getName())
+                .description(item.getDescription())
+                .available(item.getAvailable())
+                .requestId(item.getRequest() == null ? 0 : item.getRequest().getId())
+                .build();
     }
 
-    public ItemDto convertToDto(Item item) {
-        return modelMapper.map(item, ItemDto.class);
+    public ItemDto convertToDto(ItemSummary summary) {
+        ItemDto itemDto = convertToDto(summary.getItem());
+        if (summary.getLastBookingId() == null && summary.getNextBookingId() == null) {
+            return itemDto;
+        }
+        // Вещь внутри бронирований — отдельный объект без самих бронирований, общий для last и next
+        ItemDto bookedItem = ItemDto.builder()
+                .id(itemDto.getId())
+                .name(itemDto.getName())
+                .description(itemDto.getDescription())
+                .available(itemDto.getAvailable())
+                .requestId(itemDto.getRequestId())
+                .build();
+        if (summary.getLastBookingId() != null) {
+            itemDto.setLastBooking(new BookingDtoShort(summary.getLastBookingId(), bookedItem,
+                    summary.getLastBookerId(), summary.getLastStart(), summary.getLastEnd()));
+        }
+        if (summary.getNextBookingId() != null) {
+            itemDto.setNextBooking(new BookingDtoShort(summary.getNextBookingId(), bookedItem,
+                    summary.getNextBookerId(), summary.getNextStart(), summary.getNextEnd()));
+        }
+        return itemDto;
     }
 
-    public Item convertFromDto(ItemDto itemDto) {
-        return modelMapper.map(itemDto, Item.class);
+    public Item convertFromDto(ItemDto itemDto) {   // Владельца и запрос выставляет сервис
+        return Item.builder()
+                .id(itemDto.getId())
+                .name(itemDto.getName())
+                .description(itemDto.getDescription())
+                .available(itemDto.getAvailable())
+                .build();
     }
 }
\ No newline at end of file
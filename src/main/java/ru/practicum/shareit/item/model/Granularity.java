@@ -0,0 +1,22 @@
+package ru.practicum.shareit.item.model;
+
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+
+public enum Granularity {
+    HOUR(ChronoUnit.HOURS), DAY(ChronoUnit.DAYS);
+
+    private final ChronoUnit unit;
+
+    Granularity(ChronoUnit unit) {
+        this.unit = unit;
+    }
+
+    public ChronoUnit getUnit() {
+        return unit;
+    }
+
+    public Duration getDuration() {
+        return unit.getDuration();
+    }
+}
@@ -0,0 +1,59 @@
+package ru.practicum.shareit.item.model;
+
+import lombok.*;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@ToString
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity
+@Table(name = "item_summary", indexes = @Index(name = "item_summary_owner_idx", columnList = "owner_id, item_id"))
+public class ItemSummary {
+    @Id
+    @Column(name = "item_id")
+    private long itemId;
+    @ToString.Exclude
+    @MapsId
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "item_id")
+    private Item item;
+    @Column(name = "owner_id", nullable = false)
+    private long ownerId;
+    @Column(name = "last_booking_id")
+    private Long lastBookingId;
+    @Column(name = "last_booker_id")
+    private Long lastBookerId;
+    @Column(name = "last_start")
+    private LocalDateTime lastStart;
+    @Column(name = "last_end")
+    private LocalDateTime lastEnd;
+    @Column(name = "next_booking_id")
+    private Long nextBookingId;
+    @Column(name = "next_booker_id")
+    private Long nextBookerId;
+    @Column(name = "next_start")
+    private LocalDateTime nextStart;
+    @Column(name = "next_end")
+    private LocalDateTime nextEnd;
+    @Column(name = "comment_count", nullable = false)
+    private int commentCount;
+    @Column(name = "last_comment_id")
+    private Long lastCommentId;
+    @Column(nullable = false)
+    private boolean stale;
+    // Момент, когда последнее или следующее бронирование сменится само по себе (null — не сменится)
+    @Column(name = "valid_until")
+    private LocalDateTime validUntil;
+    // Увеличивается и при markStale, поэтому пересчёт, начатый до отметки, не сможет её затереть
+    @Version
+    private long version;
+
+    public boolean isActual(LocalDateTime now) {
+        return !stale && (validUntil == null || now.isBefore(validUntil));
+    }
+}
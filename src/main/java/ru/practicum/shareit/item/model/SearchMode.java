@@ -0,0 +1,15 @@
+package ru.practicum.shareit.item.model;
+
+import java.util.Locale;
+
+public enum SearchMode {
+    TEXT, FUZZY;
+
+    public static SearchMode from(String source) {
+        try {
+            return SearchMode.valueOf(source.toUpperCase(Locale.ROOT));
+        } catch (Exception e) {
+            throw new IllegalArgumentException(String.format("Unknown search mode: %S", source));
+        }
+    }
+}
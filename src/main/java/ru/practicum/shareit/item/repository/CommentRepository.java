@@ -1,13 +1,21 @@
 package ru.practicum.shareit.item.repository;
 
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.item.model.Comment;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
+    @EntityGraph(attributePaths = "author")
     List<Comment> findAllByItemId(long itemId, Sort sort);
 
+    @EntityGraph(attributePaths = "author")
     List<Comment> findAllByItemIdIn(List<Long> items, Sort sort);
+
+    @Query(value = "select c.item.id, count(c), max(c.id) from Comment c where c.item.id in ?1 group by c.item.id")
+    List<Object[]> findCommentStatsByItemIdIn(Collection<Long> itemIds);
 }
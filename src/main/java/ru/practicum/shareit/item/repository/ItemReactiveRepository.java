@@ -0,0 +1,48 @@
+package ru.practicum.shareit.item.repository;
+
+import io.r2dbc.spi.Row;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.reactive.ReactiveDatabase;
+import ru.practicum.shareit.request.model.ItemRequest;
+
+/**
+ * Потоковая выборка вещей владельца через R2DBC, в порядке id, как у /items.
+ */
+@Repository
+public class ItemReactiveRepository {
+    private static final String SELECT_BY_OWNER = "SELECT id, user_id, name, description, available, request_id "
+            + "FROM items WHERE user_id = :ownerId ORDER BY id OFFSET :offset ROWS";
+
+    private final DatabaseClient client;
+
+    public ItemReactiveRepository(ReactiveDatabase database) {
+        client = database.getClient();
+    }
+
+    public Flux<Item> findAllByOwner(long ownerId, long offset, Integer limit) {
+        DatabaseClient.GenericExecuteSpec spec = client.sql(limit == null
+                        ? SELECT_BY_OWNER
+                        : SELECT_BY_OWNER + " FETCH FIRST :limit ROWS ONLY")
+                .bind("ownerId", ownerId)
+                .bind("offset", offset);
+        if (limit != null) {
+            spec = spec.bind("limit", limit);
+        }
+        return spec.map((row, metadata) -> toItem(row)).all();
+    }
+
+    private static Item toItem(Row row) {
+        Long requestId = row.get("request_id", Long.class);
+        return Item.builder()
+                .id(row.get("id", Long.class))
+                .userId(row.get("user_id", Long.class))
+                .name(row.get("name", String.class))
+                .description(row.get("description", String.class))
+                .available(row.get("available", Boolean.class))
+                .request(requestId == null ? null : ItemRequest.builder().id(requestId).build())
+                .build();
+    }
+}
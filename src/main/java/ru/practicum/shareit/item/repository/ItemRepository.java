@@ -1,24 +1,26 @@
 package ru.practicum.shareit.item.repository;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.item.model.Item;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
+    Slice<Item> findAllBy(Pageable pageable);
 
-    Page<Item> findAllByUserIdOrderById(long userId, Pageable pageable);
+    List<Item> findAllByUserId(long userId);
 
-    @Query(value = "select i from Item i where lower(i.name) like %?1% or lower(i.description) like %?1% " +
+    @Query(value = "select i from Item i where (lower(i.name) like %?1% or lower(i.description) like %?1%) " +
             "and i.available=true")
-    Page<Item> findByNameOrDescriptionLike(String text, Pageable pageable);
+    Slice<Item> findByNameOrDescriptionLike(String text, Pageable pageable);
 
-    List<Item> findAllByRequestId(long requestId);
-
-    List<Item> findAllByRequestIdNotNull();
+    @EntityGraph(attributePaths = {"request", "request.author"})
+    List<Item> findAllByRequestIdIn(Collection<Long> requestIds);
 
     void deleteById(long itemId);
 }
\ No newline at end of file
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.item.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.item.model.ItemSummary;
+
+import javax.persistence.LockModeType;
+import java.util.Optional;
+
+public interface ItemSummaryRepository extends JpaRepository<ItemSummary, Long> {
+    @EntityGraph(attributePaths = "item")
+    Slice<ItemSummary> findAllByOwnerIdOrderByItemId(long ownerId, Pageable pageable);
+
+    // Версия увеличивается при фиксации транзакции, даже если сводка уже помечена устаревшей
+    @Lock(LockModeType.OPTIMISTIC_FORCE_INCREMENT)
+    @Query("select s from ItemSummary s where s.itemId = ?1")
+    Optional<ItemSummary> findByIdForUpdate(long itemId);
+}
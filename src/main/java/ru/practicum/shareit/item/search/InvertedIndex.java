@@ -0,0 +1,168 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Инвертированный индекс: терм -> отсортированный по id список документов с весами.
+ * Не потокобезопасен, синхронизация — на стороне {@link ItemSearchIndex}.
+ */
+class InvertedIndex {
+    static final int NAME_WEIGHT = 3;
+    static final int DESCRIPTION_WEIGHT = 1;
+    private static final int MAX_PREFIX_EXPANSIONS = 50;
+    private static final int[] NO_DOCS = new int[0];
+
+    private final NavigableMap<String, PostingList> terms = new TreeMap<>();
+    private final Map<Integer, String[]> documentTerms = new HashMap<>();
+
+    int size() {
+        return documentTerms.size();
+    }
+
+    void put(int docId, String name, String description) {
+        remove(docId);
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        SearchTokenizer.tokenize(name).forEach(term -> weights.merge(term, NAME_WEIGHT, Integer::sum));
+        SearchTokenizer.tokenize(description).forEach(term -> weights.merge(term, DESCRIPTION_WEIGHT, Integer::sum));
+        if (weights.isEmpty()) {
+            return;
+        }
+        weights.forEach((term, weight) -> terms.computeIfAbsent(term, key -> new PostingList()).add(docId, weight));
+        documentTerms.put(docId, weights.keySet().toArray(new String[0]));
+    }
+
+    void remove(int docId) {
+        String[] docTerms = documentTerms.remove(docId);
+        if (docTerms == null) {
+            return;
+        }
+        for (String term : docTerms) {
+            PostingList postings = terms.get(term);
+            postings.remove(docId);
+            if (postings.size == 0) {
+                terms.remove(term);
+            }
+        }
+    }
+
+    /**
+     * Возвращает не больше limit id документов, содержащих все термы запроса, по убыванию релевантности (tf-idf).
+     * Последний терм запроса ищется как префикс, чтобы поиск работал по мере набора текста.
+     */
+    int[] search(String text, int limit) {
+        List<String> queryTerms = SearchTokenizer.tokenize(text);
+        if (queryTerms.isEmpty()) {
+            return NO_DOCS;
+        }
+        ScoredDocs result = null;
+        for (int i = 0; i < queryTerms.size(); i++) {
+            String term = queryTerms.get(i);
+            ScoredDocs matched = i == queryTerms.size() - 1 ? matchPrefix(term) : matchExact(term);
+            result = result == null ? matched : result.intersect(matched);
+            if (result.size == 0) {
+                return NO_DOCS;
+            }
+        }
+        return result.ranked(limit);
+    }
+
+    private ScoredDocs matchExact(String term) {
+        PostingList postings = terms.get(term);
+        return postings == null ? ScoredDocs.EMPTY : ScoredDocs.of(postings, idf(postings));
+    }
+
+    private ScoredDocs matchPrefix(String prefix) {
+        ScoredDocs matched = matchExact(prefix);
+        int expansions = 0;
+        for (PostingList postings : terms.subMap(prefix, false, prefix + Character.MAX_VALUE, false).values()) {
+            if (++expansions > MAX_PREFIX_EXPANSIONS) {
+                break;
+            }
+            matched = matched.union(ScoredDocs.of(postings, idf(postings)));
+        }
+        return matched;
+    }
+
+    private double idf(PostingList postings) {
+        return Math.log(1 + (double) documentTerms.size() / postings.size);
+    }
+
+    /**
+     * Отсортированный по id набор документов с накопленной оценкой.
+     */
+    private static class ScoredDocs {
+        static final ScoredDocs EMPTY = new ScoredDocs(new int[0], new double[0], 0);
+
+        private final int[] docs;
+        private final double[] scores;
+        private final int size;
+
+        ScoredDocs(int[] docs, double[] scores, int size) {
+            this.docs = docs;
+            this.scores = scores;
+            this.size = size;
+        }
+
+        static ScoredDocs of(PostingList postings, double idf) {
+            double[] scores = new double[postings.size];
+            for (int i = 0; i < postings.size; i++) {
+                scores[i] = postings.weights[i] * idf;
+            }
+            return new ScoredDocs(Arrays.copyOf(postings.docs, postings.size), scores, postings.size);
+        }
+
+        ScoredDocs intersect(ScoredDocs other) {
+            int[] resultDocs = new int[Math.min(size, other.size)];
+            double[] resultScores = new double[resultDocs.length];
+            int count = 0;
+            int i = 0;
+            int j = 0;
+            while (i < size && j < other.size) {
+                if (docs[i] < other.docs[j]) {
+                    i++;
+                } else if (docs[i] > other.docs[j]) {
+                    j++;
+                } else {
+                    resultDocs[count] = docs[i];
+                    resultScores[count++] = scores[i++] + other.scores[j++];
+                }
+            }
+            return new ScoredDocs(resultDocs, resultScores, count);
+        }
+
+        ScoredDocs union(ScoredDocs other) {
+            int[] resultDocs = new int[size + other.size];
+            double[] resultScores = new double[resultDocs.length];
+            int count = 0;
+            int i = 0;
+            int j = 0;
+            while (i < size || j < other.size) {
+                if (j == other.size || i < size && docs[i] < other.docs[j]) {
+                    resultDocs[count] = docs[i];
+                    resultScores[count++] = scores[i++];
+                } else if (i == size || docs[i] > other.docs[j]) {
+                    resultDocs[count] = other.docs[j];
+                    resultScores[count++] = other.scores[j++];
+                } else {
+                    resultDocs[count] = docs[i];
+                    resultScores[count++] = Math.max(scores[i++], other.scores[j++]);
+                }
+            }
+            return new ScoredDocs(resultDocs, resultScores, count);
+        }
+
+        int[] ranked(int limit) {
+            TopDocs top = new TopDocs(Math.min(limit, size));
+            for (int i = 0; i < size; i++) {
+                top.offer(docs[i], scores[i]);
+            }
+            return top.ranked();
+        }
+    }
+}
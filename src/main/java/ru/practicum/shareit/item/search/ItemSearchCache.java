@@ -0,0 +1,183 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.SearchMode;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Кэш результатов поиска вещей (id в порядке выдачи) с ограничением по размеру (LRU) и времени жизни.
+ * При изменении вещи сбрасываются только те запросы, которым вещь соответствовала до или после изменения.
+ */
+@Component
+public class ItemSearchCache {
+    private static final int MAX_ENTRIES = 1000;
+    private static final Duration TTL = Duration.ofMinutes(5);
+
+    private final long ttlNanos;
+    private final LongSupplier nanoTime;
+    private final Map<Key, Entry> entries;
+    private long version;
+
+    public ItemSearchCache() {
+        this(MAX_ENTRIES, TTL, System::nanoTime);
+    }
+
+    ItemSearchCache(int maxEntries, Duration ttl, LongSupplier nanoTime) {
+        this.ttlNanos = ttl.toNanos();
+        this.nanoTime = nanoTime;
+        this.entries = new LruMap(maxEntries);
+    }
+
+    /**
+     * Номер поколения кэша. Его нужно получить до поиска и передать в {@link #put}, чтобы результат,
+     * посчитанный одновременно с изменением вещи, не попал в кэш.
+     */
+    public synchronized long version() {
+        return version;
+    }
+
+    public synchronized List<Long> get(SearchMode mode, String text, int from, int size) {
+        Key key = new Key(mode, SearchTokenizer.normalize(text), from, size);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (nanoTime.getAsLong() - entry.createdAt > ttlNanos) {
+            entries.remove(key);
+            return null;
+        }
+        return entry.itemIds;
+    }
+
+    public synchronized void put(SearchMode mode, String text, int from, int size, List<Long> itemIds,
+                                 long expectedVersion) {
+        if (expectedVersion != version) {
+            return;
+        }
+        entries.put(new Key(mode, SearchTokenizer.normalize(text), from, size),
+                new Entry(List.copyOf(itemIds), nanoTime.getAsLong()));
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Сбрасывает запросы, которым соответствует текущее состояние вещи. Вызывается после записи вещи в индекс;
+     * при откате транзакции те же запросы сбрасываются повторно.
+     */
+    public void invalidate(Item item) {
+        invalidate(List.of(ItemContent.of(item)));
+    }
+
+    /**
+     * То же для изменённой вещи: сбрасываются запросы, которым она соответствовала до изменения
+     * (previous — снимок, снятый до изменения) или соответствует после. Вызывается после записи вещи в индекс.
+     */
+    public void invalidate(ItemContent previous, Item item) {
+        invalidate(List.of(previous, ItemContent.of(item)));
+    }
+
+    private void invalidate(List<ItemContent> contents) {
+        invalidateNow(contents);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_ROLLED_BACK) {
+                        invalidateNow(contents);
+                    }
+                }
+            });
+        }
+    }
+
+    private synchronized void invalidateNow(List<ItemContent> contents) {
+        version++;
+        Map<Key, Boolean> matchedQueries = new HashMap<>();
+        Iterator<Key> keys = entries.keySet().iterator();
+        while (keys.hasNext()) {
+            Key key = keys.next();
+            Key query = new Key(key.mode, key.text, 0, 0);
+            if (matchedQueries.computeIfAbsent(query, ignored -> matchesAny(contents, key.mode, key.text))) {
+                keys.remove();
+            }
+        }
+    }
+
+    private static boolean matchesAny(List<ItemContent> contents, SearchMode mode, String text) {
+        for (ItemContent content : contents) {
+            if (content.available && content.matches(mode, text)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static class LruMap extends LinkedHashMap<Key, Entry> {
+        private final int maxEntries;
+
+        LruMap(int maxEntries) {
+            super(16, 0.75f, true);
+            this.maxEntries = maxEntries;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+            return size() > maxEntries;
+        }
+    }
+
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static class Key {
+        private final SearchMode mode;
+        private final String text;
+        private final int from;
+        private final int size;
+    }
+
+    @RequiredArgsConstructor
+    private static class Entry {
+        private final List<Long> itemIds;
+        private final long createdAt;
+    }
+
+    /**
+     * Снимок полей вещи, от которых зависит выдача поиска.
+     */
+    @RequiredArgsConstructor
+    public static class ItemContent {
+        private final String name;
+        private final String description;
+        private final boolean available;
+
+        public static ItemContent of(Item item) {
+            return new ItemContent(item.getName(), item.getDescription(), Boolean.TRUE.equals(item.getAvailable()));
+        }
+
+        // Проверяем тем же индексом, что и поиск, построенным по одной вещи
+        boolean matches(SearchMode mode, String text) {
+            if (mode == SearchMode.FUZZY) {
+                TrigramIndex index = new TrigramIndex();
+                index.put(0, name, description);
+                return index.search(text, 1).length > 0;
+            }
+            InvertedIndex index = new InvertedIndex();
+            index.put(0, name, description);
+            return index.search(text, 1).length > 0;
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntFunction;
+
+/**
+ * Полнотекстовый индекс доступных для аренды вещей по названию и описанию.
+ * Заполняется при старте приложения, до этого момента поиск выполняется запросом к БД.
+ * Внутренние индексы работают с плотными номерами документов типа int, которые выдаются вещам по мере
+ * индексации, поэтому id вещи может быть любым long.
+ */
+@Component
+@RequiredArgsConstructor
+public class ItemSearchIndex {
+    private static final int WARM_UP_PAGE_SIZE = 1000;
+
+    private final ItemRepository itemRepository;
+    private final InvertedIndex index = new InvertedIndex();
+    private final TrigramIndex trigramIndex = new TrigramIndex();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Integer> docIds = new HashMap<>();
+    private long[] itemIds = new long[1024];
+    private int nextDocId;
+    private volatile boolean ready;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        Slice<Item> page;
+        int pageNumber = 0;
+        do {
+            page = itemRepository.findAllBy(PageRequest.of(pageNumber++, WARM_UP_PAGE_SIZE, Sort.by("id")));
+            lock.writeLock().lock();
+            try {
+                page.forEach(this::put);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } while (page.hasNext());
+        ready = true;
+    }
+
+    public void index(Item item) {
+        lock.writeLock().lock();
+        try {
+            put(item);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        resyncOnRollback(item.getId());
+    }
+
+    public void remove(long itemId) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(docIds.remove(itemId));
+        } finally {
+            lock.writeLock().unlock();
+        }
+        resyncOnRollback(itemId);
+    }
+
+    /**
+     * Возвращает id найденных вещей по убыванию релевантности, начиная с позиции from.
+     */
+    public List<Long> search(String text, int from, int size) {
+        return page(limit -> index.search(text, limit), from, size);
+    }
+
+    /**
+     * Нечёткий поиск по триграммам: подстрока в любом месте слова или текст с опечатками.
+     */
+    public List<Long> searchFuzzy(String text, int from, int size) {
+        return page(limit -> trigramIndex.search(text, limit), from, size);
+    }
+
+    // Индексы ранжируют только первые from + size совпадений, остальные не сортируются
+    private List<Long> page(IntFunction<int[]> search, int from, int size) {
+        int limit = (int) Math.min((long) from + size, Integer.MAX_VALUE);
+        List<Long> result = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            int[] found = search.apply(limit);
+            for (int i = from; i < found.length; i++) {
+                result.add(itemIds[found[i]]);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    private void put(Item item) {
+        if (Boolean.TRUE.equals(item.getAvailable())) {
+            int docId = docIds.computeIfAbsent(item.getId(), this::assignDocId);
+            index.put(docId, item.getName(), item.getDescription());
+            trigramIndex.put(docId, item.getName(), item.getDescription());
+        } else {    // Номер остаётся за вещью: снова став доступной, она не займёт новый
+            removeDocument(docIds.get(item.getId()));
+        }
+    }
+
+    // Номер удалённой вещи не переиспользуется, в itemIds от неё остаётся одна ячейка
+    private int assignDocId(long itemId) {
+        if (nextDocId == itemIds.length) {
+            itemIds = Arrays.copyOf(itemIds, itemIds.length * 2);
+        }
+        itemIds[nextDocId] = itemId;
+        return nextDocId++;
+    }
+
+    private void removeDocument(Integer docId) {
+        if (docId != null) {
+            index.remove(docId);
+            trigramIndex.remove(docId);
+        }
+    }
+
+    // Изменения попадают в индекс сразу, а при откате транзакции вещь перечитывается из БД
+    private void resyncOnRollback(long itemId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_ROLLED_BACK) {
+                        resync(itemId);
+                    }
+                }
+            });
+        }
+    }
+
+    private void resync(long itemId) {
+        Item item = itemRepository.findById(itemId).orElse(null);
+        lock.writeLock().lock();
+        try {
+            if (item == null) {
+                removeDocument(docIds.remove(itemId));
+            } else {
+                put(item);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.Arrays;
+
+/**
+ * Отсортированный по возрастанию список id документов с весами, хранится в массивах int.
+ */
+class PostingList {
+    int[] docs = new int[4];
+    int[] weights = new int[4];
+    int size;
+
+    void add(int docId, int weight) {
+        int position = Arrays.binarySearch(docs, 0, size, docId);
+        if (position >= 0) {
+            weights[position] = weight;
+            return;
+        }
+        position = -position - 1;
+        if (size == docs.length) {
+            docs = Arrays.copyOf(docs, size * 2);
+            weights = Arrays.copyOf(weights, size * 2);
+        }
+        System.arraycopy(docs, position, docs, position + 1, size - position);
+        System.arraycopy(weights, position, weights, position + 1, size - position);
+        docs[position] = docId;
+        weights[position] = weight;
+        size++;
+    }
+
+    void remove(int docId) {
+        int position = Arrays.binarySearch(docs, 0, size, docId);
+        if (position < 0) {
+            return;
+        }
+        System.arraycopy(docs, position + 1, docs, position, size - position - 1);
+        System.arraycopy(weights, position + 1, weights, position, size - position - 1);
+        size--;
+    }
+}
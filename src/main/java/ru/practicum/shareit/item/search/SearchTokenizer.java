@@ -0,0 +1,99 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+final class SearchTokenizer {
+    private static final int MIN_STEM_LENGTH = 3;
+    private static final String[] RUSSIAN_ENDINGS = {
+            "ями", "ами", "ого", "его", "ому", "ему", "ыми", "ими",
+            "ая", "яя", "ое", "ее", "ые", "ие", "ый", "ий", "ой", "ей", "ом", "ем", "ах", "ях", "ов", "ев", "ую", "юю",
+            "а", "я", "о", "е", "ы", "и", "у", "ю", "ь", "й"
+    };
+
+    private SearchTokenizer() {
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        String normalized = text.toLowerCase(Locale.ROOT).replace('ё', 'е');
+        int start = -1;
+        for (int i = 0; i <= normalized.length(); i++) {
+            boolean letter = i < normalized.length() && Character.isLetterOrDigit(normalized.charAt(i));
+            if (letter && start < 0) {
+                start = i;
+            } else if (!letter && start >= 0) {
+                tokens.add(stem(normalized.substring(start, i)));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Нижний регистр, ё -> е, любые последовательности не букв и не цифр заменяются одним пробелом.
+     */
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder normalized = new StringBuilder(text.length());
+        String lowerCase = text.toLowerCase(Locale.ROOT).replace('ё', 'е');
+        for (int i = 0; i < lowerCase.length(); i++) {
+            char symbol = lowerCase.charAt(i);
+            if (Character.isLetterOrDigit(symbol)) {
+                normalized.append(symbol);
+            } else if (normalized.length() > 0 && normalized.charAt(normalized.length() - 1) != ' ') {
+                normalized.append(' ');
+            }
+        }
+        int length = normalized.length();
+        return length > 0 && normalized.charAt(length - 1) == ' ' ? normalized.substring(0, length - 1)
+                : normalized.toString();
+    }
+
+    static String stem(String token) {
+        if (isCyrillic(token)) {
+            for (String ending : RUSSIAN_ENDINGS) {
+                if (token.endsWith(ending) && token.length() - ending.length() >= MIN_STEM_LENGTH) {
+                    return token.substring(0, token.length() - ending.length());
+                }
+            }
+            return token;
+        }
+        return stemEnglish(token);
+    }
+
+    private static String stemEnglish(String token) {
+        if (token.endsWith("ies") && token.length() > MIN_STEM_LENGTH + 1) {
+            return token.substring(0, token.length() - 3) + "y";
+        }
+        if (token.endsWith("ing") && token.length() - 3 >= MIN_STEM_LENGTH) {
+            return token.substring(0, token.length() - 3);
+        }
+        if (token.endsWith("ed") && token.length() - 2 >= MIN_STEM_LENGTH) {
+            return token.substring(0, token.length() - 2);
+        }
+        if (token.endsWith("es") && token.length() - 2 >= MIN_STEM_LENGTH
+                && (token.endsWith("ses") || token.endsWith("xes") || token.endsWith("ches") || token.endsWith("shes"))) {
+            return token.substring(0, token.length() - 2);
+        }
+        if (token.endsWith("s") && !token.endsWith("ss") && token.length() - 1 >= MIN_STEM_LENGTH) {
+            return token.substring(0, token.length() - 1);
+        }
+        return token;
+    }
+
+    private static boolean isCyrillic(String token) {
+        for (int i = 0; i < token.length(); i++) {
+            if (Character.UnicodeBlock.of(token.charAt(i)) == Character.UnicodeBlock.CYRILLIC) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,87 @@
+package ru.practicum.shareit.item.search;
+
+/**
+ * Отбор limit лучших документов без сортировки всех совпадений: куча на массивах, в корне — худший
+ * из отобранных. Порядок выдачи — по убыванию оценки, при равной оценке — по возрастанию id документа.
+ */
+class TopDocs {
+    private final int[] docs;
+    private final double[] scores;
+    private int size;
+
+    TopDocs(int limit) {
+        docs = new int[limit];
+        scores = new double[limit];
+    }
+
+    void offer(int docId, double score) {
+        if (size < docs.length) {
+            docs[size] = docId;
+            scores[size] = score;
+            siftUp(size++);
+        } else if (size > 0 && isWorse(scores[0], docs[0], score, docId)) {
+            docs[0] = docId;
+            scores[0] = score;
+            siftDown(0);
+        }
+    }
+
+    // Опустошает кучу: худший документ каждый раз снимается из корня и встаёт в конец выдачи
+    int[] ranked() {
+        int[] result = new int[size];
+        for (int i = result.length - 1; i >= 0; i--) {
+            result[i] = docs[0];
+            size--;
+            docs[0] = docs[size];
+            scores[0] = scores[size];
+            siftDown(0);
+        }
+        return result;
+    }
+
+    private void siftUp(int position) {
+        while (position > 0) {
+            int parent = (position - 1) / 2;
+            if (!isWorse(position, parent)) {
+                return;
+            }
+            swap(position, parent);
+            position = parent;
+        }
+    }
+
+    private void siftDown(int position) {
+        while (true) {
+            int child = 2 * position + 1;
+            if (child >= size) {
+                return;
+            }
+            if (child + 1 < size && isWorse(child + 1, child)) {
+                child++;
+            }
+            if (!isWorse(child, position)) {
+                return;
+            }
+            swap(child, position);
+            position = child;
+        }
+    }
+
+    private boolean isWorse(int first, int second) {
+        return isWorse(scores[first], docs[first], scores[second], docs[second]);
+    }
+
+    private static boolean isWorse(double firstScore, int firstDoc, double secondScore, int secondDoc) {
+        int byScore = Double.compare(firstScore, secondScore);
+        return byScore != 0 ? byScore < 0 : firstDoc > secondDoc;
+    }
+
+    private void swap(int first, int second) {
+        int doc = docs[first];
+        docs[first] = docs[second];
+        docs[second] = doc;
+        double score = scores[first];
+        scores[first] = scores[second];
+        scores[second] = score;
+    }
+}
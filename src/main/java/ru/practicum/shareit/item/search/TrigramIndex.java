@@ -0,0 +1,124 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Триграммный индекс: триграмма -> список документов, в тексте которых она встречается.
+ * Слова дополняются пробелами (два в начале, один в конце), как в pg_trgm, поэтому совпадение
+ * начала и конца слова тоже учитывается. Не потокобезопасен, синхронизация — на стороне {@link ItemSearchIndex}.
+ */
+class TrigramIndex {
+    static final double SIMILARITY_THRESHOLD = 0.5;
+    private static final double SUBSTRING_SCORE = 2.0;
+    private static final int[] NO_DOCS = new int[0];
+
+    private final Map<String, PostingList> trigrams = new HashMap<>();
+    private final Map<Integer, String> documentTexts = new HashMap<>();
+
+    void put(int docId, String name, String description) {
+        remove(docId);
+        String text = SearchTokenizer.normalize(name + " " + description);
+        if (text.isEmpty()) {
+            return;
+        }
+        for (String trigram : paddedTrigrams(text)) {
+            trigrams.computeIfAbsent(trigram, key -> new PostingList()).add(docId, 1);
+        }
+        documentTexts.put(docId, text);
+    }
+
+    void remove(int docId) {
+        String text = documentTexts.remove(docId);
+        if (text == null) {
+            return;
+        }
+        for (String trigram : paddedTrigrams(text)) {
+            PostingList postings = trigrams.get(trigram);
+            postings.remove(docId);
+            if (postings.size == 0) {
+                trigrams.remove(trigram);
+            }
+        }
+    }
+
+    /**
+     * Возвращает не больше limit id документов по убыванию схожести с запросом. Документы, содержащие запрос
+     * как подстроку, идут первыми; остальные попадают в выдачу, если в них есть не меньше половины триграмм запроса.
+     */
+    int[] search(String text, int limit) {
+        String query = SearchTokenizer.normalize(text);
+        if (query.isEmpty()) {
+            return NO_DOCS;
+        }
+        Map<Integer, Double> scores = new HashMap<>();
+        collectSubstringMatches(query, scores);
+        Set<String> queryTrigrams = paddedTrigrams(query);
+        Map<Integer, Integer> shared = new HashMap<>();
+        for (String trigram : queryTrigrams) {
+            PostingList postings = trigrams.get(trigram);
+            if (postings != null) {
+                for (int i = 0; i < postings.size; i++) {
+                    shared.merge(postings.docs[i], 1, Integer::sum);
+                }
+            }
+        }
+        shared.forEach((docId, count) -> {
+            double similarity = (double) count / queryTrigrams.size();
+            if (similarity >= SIMILARITY_THRESHOLD) {
+                scores.merge(docId, similarity, Math::max);
+            }
+        });
+        TopDocs top = new TopDocs(Math.min(limit, scores.size()));
+        scores.forEach(top::offer);
+        return top.ranked();
+    }
+
+    // Подстроку ищем только среди документов, содержащих все внутренние триграммы запроса
+    private void collectSubstringMatches(String query, Map<Integer, Double> scores) {
+        Set<String> innerTrigrams = innerTrigrams(query);
+        if (innerTrigrams.isEmpty()) {
+            return;
+        }
+        PostingList smallest = null;
+        for (String trigram : innerTrigrams) {
+            PostingList postings = trigrams.get(trigram);
+            if (postings == null) {
+                return;
+            }
+            if (smallest == null || postings.size < smallest.size) {
+                smallest = postings;
+            }
+        }
+        for (int i = 0; i < smallest.size; i++) {
+            int docId = smallest.docs[i];
+            if (documentTexts.get(docId).contains(query)) {
+                scores.put(docId, SUBSTRING_SCORE);
+            }
+        }
+    }
+
+    static Set<String> paddedTrigrams(String normalized) {
+        Set<String> result = new LinkedHashSet<>();
+        for (String word : normalized.split(" ")) {
+            addTrigrams("  " + word + " ", result);
+        }
+        return result;
+    }
+
+    private static Set<String> innerTrigrams(String normalized) {
+        Set<String> result = new LinkedHashSet<>();
+        for (String word : normalized.split(" ")) {
+            addTrigrams(word, result);
+        }
+        return result;
+    }
+
+    private static void addTrigrams(String word, Set<String> result) {
+        for (int i = 0; i + 3 <= word.length(); i++) {
+            result.add(word.substring(i, i + 3));
+        }
+    }
+}
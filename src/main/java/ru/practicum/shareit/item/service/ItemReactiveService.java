@@ -0,0 +1,12 @@
+package ru.practicum.shareit.item.service;
+
+import reactor.core.publisher.Flux;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+/**
+ * Потоковое чтение вещей для /v2/items: только поля самой вещи, без бронирований и комментариев.
+ * Без size выдаётся вся выборка начиная с from.
+ */
+public interface ItemReactiveService {
+    Flux<ItemDto> getAllItems(long userId, int from, Integer size);
+}
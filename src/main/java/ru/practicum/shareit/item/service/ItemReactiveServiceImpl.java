@@ -0,0 +1,24 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.repository.ItemReactiveRepository;
+import ru.practicum.shareit.user.service.UserRegistry;
+
+@Service
+@AllArgsConstructor
+public class ItemReactiveServiceImpl implements ItemReactiveService {
+    private final ItemReactiveRepository itemRepository;
+    private final UserRegistry userRegistry;
+    private final ItemMapper itemMapper;
+
+    @Override
+    public Flux<ItemDto> getAllItems(long userId, int from, Integer size) {
+        userRegistry.checkExists(userId);
+        return itemRepository.findAllByOwner(userId, from, size)
+                .map(itemMapper::convertToDto);
+    }
+}
@@ -1,8 +1,12 @@
 package ru.practicum.shareit.item.service;
 
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Granularity;
+import ru.practicum.shareit.item.model.SearchMode;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemService {
@@ -14,9 +18,12 @@ public interface ItemService {
 
     List<ItemDto> getAllItems(long userId, int from, int size);
 
-    List<ItemDto> searchItems(String text, int from, int size);
+    List<ItemDto> searchItems(String text, SearchMode mode, int from, int size);
 
     void removeItem(long userId, long itemId);
 
     CommentDto addComment(long userId, long itemId, CommentDto commentDto);
+
+    ItemAvailabilityDto getItemAvailability(long userId, long itemId, LocalDateTime from, LocalDateTime to,
+                                            Granularity granularity);
 }
\ No newline at end of file
@@ -1,75 +1,102 @@
 package ru.practicum.shareit.item.service;
 
 import lombok.AllArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpMethod;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.dto.BookingDtoShort;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingArchiveRepository;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingAvailabilityIndex;
+import ru.practicum.shareit.exception.InvalidDataException;
 import ru.practicum.shareit.exception.ObjectNotAvailableException;
 import ru.practicum.shareit.exception.ObjectNotFoundException;
+import ru.practicum.shareit.item.dto.AvailabilitySlotDto;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.mapper.CommentMapper;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Granularity;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemSummary;
+import ru.practicum.shareit.item.model.SearchMode;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchCache;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
 import ru.practicum.shareit.logger.Logger;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserRegistry;
 import org.springframework.util.StringUtils;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @AllArgsConstructor
 public class ItemServiceImpl implements ItemService {
+    private static final int MAX_AVAILABILITY_SLOTS = 1000;
+    // Закончившееся подтверждённое бронирование переводится планировщиком в COMPLETED
+    private static final List<Status> COMMENTABLE_STATUSES = List.of(Status.APPROVED, Status.COMPLETED);
     private final ItemRepository itemRepository;
     private final BookingRepository bookingRepository;
+    private final BookingArchiveRepository bookingArchiveRepository;
     private final ItemMapper itemMapper;
     private final BookingMapper bookingMapper;
     private final CommentRepository commentRepository;
     private final CommentMapper commentMapper;
     private final ItemRequestRepository itemRequestRepository;
     private final UserRepository userRepository;
+    private final UserRegistry userRegistry;
+    private final BookingAvailabilityIndex availabilityIndex;
+    private final ItemSummaryService itemSummaryService;
+    private final ItemSearchIndex searchIndex;
+    private final ItemSearchCache searchCache;
 
     @Override
     public ItemDto addItem(long userId, ItemDto itemDto) {
-        User user = userRepository.findById(userId).orElseThrow(() ->
-                new ObjectNotFoundException(String.format("Пользователь с id %s не найден", userId)));
+        userRegistry.checkExists(userId);
         Item item = itemMapper.convertFromDto(itemDto);
         ItemRequest itemRequest = itemRequestRepository.findById(itemDto.getRequestId()).orElse(null);
-        item.setUserId(user.getId());
+        item.setUserId(userId);
         item.setRequest(itemRequest);
         Item itemSaved = itemRepository.save(item);
-        Logger.logSave(HttpMethod.POST, "/items", itemSaved.toString());
+        itemSummaryService.addSummary(itemSaved);
+        searchIndex.index(itemSaved);
+        searchCache.invalidate(itemSaved);
+        Logger.logSave(HttpMethod.POST, "/items", itemSaved);
         return itemMapper.convertToDto(itemSaved);
     }
 
     @Override
     public ItemDto updateItem(long userId, long itemId, ItemDto itemDto) {
         Item item = itemMapper.convertFromDto(itemDto);
-        User user = userRepository.findById(userId).orElseThrow(() ->
-                new ObjectNotFoundException(String.format("Пользователь с id %s не найден", userId)));
+        userRegistry.checkExists(userId);
         Item targetItem = itemRepository.findById(itemId).orElseThrow(() ->
                 new ObjectNotFoundException(String.format("Вещь с id %s не найдена", itemId)));
-        if (targetItem.getUserId() != user.getId()) {
+        if (targetItem.getUserId() != userId) {
             throw new ObjectNotFoundException(String.format("У пользователя с id %s не найдена вещь с id %s",
                     userId, itemId));
         } else {
+            ItemSearchCache.ItemContent previous = ItemSearchCache.ItemContent.of(targetItem);
             if (item.getAvailable() != null) {
                 targetItem.setAvailable(item.getAvailable());
             }
@@ -80,25 +107,21 @@ public class ItemServiceImpl implements ItemService {
                 targetItem.setDescription(item.getDescription());
             }
             Item itemSaved = itemRepository.save(targetItem);
-            Logger.logSave(HttpMethod.PATCH, "/items/" + itemId, itemSaved.toString());
+            searchIndex.index(itemSaved);
+            searchCache.invalidate(previous, itemSaved);
+            Logger.logSave(HttpMethod.PATCH, "/items/" + itemId, itemSaved);
             return itemMapper.convertToDto(itemSaved);
         }
     }
 
     @Override
     public ItemDto getItemById(long itemId, long userId) {
-        userRepository.findById(userId).orElseThrow(() ->
-                new ObjectNotFoundException(String.format("Пользователь с id %s не найден", userId)));
+        userRegistry.checkExists(userId);
         Item item = itemRepository.findById(itemId).orElseThrow(() ->
                 new ObjectNotFoundException(String.format("Вещь с id %s не найдена", itemId)));
         ItemDto itemDto = itemMapper.convertToDto(item);
-        List<Booking> bookings = bookingRepository.findByItemId(itemId,
-                Sort.by(Sort.Direction.DESC, "start"));
-        List<BookingDtoShort> bookingDtoShorts = bookings.stream()
-                .map(bookingMapper::convertToDtoShort)
-                .collect(Collectors.toList());
         if (item.getUserId() == userId) {   // Бронирования показываем только владельцу вещи
-            setBookings(itemDto, bookingDtoShorts);
+            setBookings(List.of(itemDto));
         }
         List<Comment> comments = commentRepository.findAllByItemId(itemId,
                 Sort.by(Sort.Direction.DESC, "created"));
@@ -106,60 +129,67 @@ public class ItemServiceImpl implements ItemService {
                 .map(commentMapper::convertToDto)
                 .collect(Collectors.toList());
         itemDto.setComments(commentsDto);
-        Logger.logSave(HttpMethod.GET, "/items/" + itemId, itemDto.toString());
+        Logger.logSave(HttpMethod.GET, "/items/" + itemId, itemDto);
         return itemDto;
     }
 
     @Override
     public List<ItemDto> getAllItems(long userId, int from, int size) {
-        User user = userRepository.findById(userId).orElseThrow(() ->
-                new ObjectNotFoundException(String.format("Пользователь с id %s не найден", userId)));
-        Pageable sortedByStart = PageRequest.of(from / size, size, Sort.by("start").descending());
-        Page<Item> items = itemRepository.findAllByUserIdOrderById(user.getId(), PageRequest.of(from / size, size));
-        List<ItemDto> itemsDto = items.stream()
+        userRegistry.checkExists(userId);
+        List<ItemSummary> summaries = itemSummaryService.getSummariesByOwner(userId, from, size);
+        List<ItemDto> itemsDto = summaries.stream()
                 .map(itemMapper::convertToDto)
                 .collect(Collectors.toList());
-        Logger.logInfo(HttpMethod.GET, "/items", items.toString());
-        Page<Booking> bookings = bookingRepository.findAllByOwnerId(userId, sortedByStart);
-        List<BookingDtoShort> bookingDtoShorts = bookings.stream()
-                .map(bookingMapper::convertToDtoShort)
+        List<Long> commentedItemIds = summaries.stream()
+                .filter(summary -> summary.getCommentCount() > 0)
+                .map(ItemSummary::getItemId)
                 .collect(Collectors.toList());
-        Logger.logInfo(HttpMethod.GET, "/items", bookings.toString());
-        List<Comment> comments = commentRepository.findAllByItemIdIn(
-                items.stream()
-                        .map(Item::getId)
-                        .collect(Collectors.toList()),
-                Sort.by(Sort.Direction.DESC, "created"));
-        itemsDto.forEach(itemDto -> {
-            setBookings(itemDto, bookingDtoShorts);
-            setComments(itemDto, comments);
-        });
-        Logger.logSave(HttpMethod.GET, "/items", itemsDto.toString());
+        Map<Long, List<CommentDto>> commentsByItemId = new HashMap<>();
+        if (!commentedItemIds.isEmpty()) {     // Комментарии запрашиваем только для вещей, у которых они есть
+            commentRepository.findAllByItemIdIn(commentedItemIds, Sort.by(Sort.Direction.DESC, "created"))
+                    .forEach(comment -> commentsByItemId.computeIfAbsent(comment.getItem().getId(),
+                            itemId -> new ArrayList<>()).add(commentMapper.convertToDto(comment)));
+        }
+        itemsDto.forEach(itemDto -> itemDto.setComments(commentsByItemId.getOrDefault(itemDto.getId(),
+                new ArrayList<>())));
+        Logger.logSave(HttpMethod.GET, "/items", itemsDto);
         return itemsDto;
     }
 
     @Override
-    public List<ItemDto> searchItems(String text, int from, int size) {
+    public List<ItemDto> searchItems(String text, SearchMode mode, int from, int size) {
         List<Item> items;
         if (text.isBlank()) {
             items = new ArrayList<>();
-        } else {
+        } else if (searchIndex.isReady()) {
+            List<Long> itemIds = searchCache.get(mode, text, from, size);
+            if (itemIds == null) {
+                long cacheVersion = searchCache.version();
+                itemIds = mode == SearchMode.FUZZY ? searchIndex.searchFuzzy(text, from, size)
+                        : searchIndex.search(text, from, size);
+                searchCache.put(mode, text, from, size, itemIds, cacheVersion);
+            }
+            items = findAllByIdInOrder(itemIds);
+        } else {    // Индекс ещё не заполнен — ищем в БД
             items = itemRepository.findByNameOrDescriptionLike(text.toLowerCase(), PageRequest.of(from / size, size))
                     .stream().collect(Collectors.toList());
         }
-        Logger.logSave(HttpMethod.GET, "/items/search?text=" + text, items.toString());
+        Logger.logSave(HttpMethod.GET, "/items/search?text=" + text + "&mode=" + mode, items);
         return items.stream()
                 .map(itemMapper::convertToDto)
                 .collect(Collectors.toList());
     }
 
     @Override
+    @Transactional
     public void removeItem(long userId, long itemId) {
-        userRepository.findById(userId).orElseThrow(() ->
-                new ObjectNotFoundException(String.format("Пользователь с id %s не найден", userId)));
+        userRegistry.checkExists(userId);
         Item item = itemRepository.findById(itemId).orElseThrow(() ->
                 new ObjectNotFoundException(String.format("Вещь с id %s не найдена", itemId)));
+        itemSummaryService.removeSummary(item.getId());
         itemRepository.deleteById(item.getId());
+        searchIndex.remove(item.getId());
+        searchCache.invalidate(item);
         Logger.logSave(HttpMethod.DELETE, "/items/" + itemId, "Вещь удалена");
     }
 
@@ -170,36 +200,84 @@ public class ItemServiceImpl implements ItemService {
                 new ObjectNotFoundException(String.format("Пользователь с id %s не найден", userId)));
         Item item = itemRepository.findById(itemId).orElseThrow(() -> new ObjectNotFoundException(
                 String.format("Вещь с id %s не найдена", itemId)));
-        List<Booking> bookings = bookingRepository.findAllByItemIdAndBookerIdAndStatus(itemId, userId, Status.APPROVED,
-                Sort.by(Sort.Direction.DESC, "start")).orElseThrow(() -> new ObjectNotFoundException(
-                String.format("Пользователь с id %d не арендовал вещь с id %d.", userId, itemId)));
-        Logger.logInfo(HttpMethod.POST, "/items/" + itemId + "/comment", bookings.toString());
-        bookings.stream().filter(booking -> booking.getEnd().isBefore(LocalDateTime.now())).findAny().orElseThrow(() ->
-                new ObjectNotAvailableException(String.format("Пользователь с id %d не может оставлять комментарии вещи " +
-                        "с id %d.", userId, itemId)));
+        List<Booking> bookings = bookingRepository.findAllByItemIdAndBookerIdAndStatusIn(itemId, userId,
+                COMMENTABLE_STATUSES, Sort.by(Sort.Direction.DESC, "start")).orElseThrow(() ->
+                new ObjectNotFoundException(String.format("Пользователь с id %d не арендовал вещь с id %d.",
+                        userId, itemId)));
+        Logger.logInfo(HttpMethod.POST, "/items/" + itemId + "/comment", bookings);
+        // Архив проверяется, только если в bookings нет закончившегося бронирования: там все бронирования завершены
+        if (bookings.stream().noneMatch(booking -> booking.getEnd().isBefore(LocalDateTime.now()))
+                && !bookingArchiveRepository.existsByItemIdAndBookerId(itemId, userId)) {
+            throw new ObjectNotAvailableException(String.format("Пользователь с id %d не может оставлять комментарии " +
+                    "вещи с id %d.", userId, itemId));
+        }
         comment.setAuthor(user);
         comment.setItem(item);
         comment.setCreated(LocalDateTime.now());
         Comment commentSaved = commentRepository.save(comment);
-        Logger.logSave(HttpMethod.POST, "/items/" + itemId + "/comment", commentSaved.toString());
+        itemSummaryService.markStale(itemId);
+        Logger.logSave(HttpMethod.POST, "/items/" + itemId + "/comment", commentSaved);
         return commentMapper.convertToDto(commentSaved);
     }
 
-    private void setBookings(ItemDto itemDto, List<BookingDtoShort> bookings) {
-        itemDto.setLastBooking(bookings.stream()
-                .filter(booking -> booking.getItem().getId() == itemDto.getId() &&
-                        booking.getEnd().isBefore(LocalDateTime.now()))
-                .reduce((a, b) -> a).orElse(null));
-        itemDto.setNextBooking(bookings.stream()
-                .filter(booking -> booking.getItem().getId() == itemDto.getId() &&
-                        booking.getStart().isAfter(LocalDateTime.now()))
-                .findFirst().orElse(null));
+    @Override
+    public ItemAvailabilityDto getItemAvailability(long userId, long itemId, LocalDateTime from, LocalDateTime to,
+                                                   Granularity granularity) {
+        userRegistry.checkExists(userId);
+        Item item = itemRepository.findById(itemId).orElseThrow(() ->
+                new ObjectNotFoundException(String.format("Вещь с id %s не найдена", itemId)));
+        LocalDateTime start = from.truncatedTo(granularity.getUnit());
+        if (!start.isBefore(to)) {
+            throw new InvalidDataException("Период выбран некорректно.");
+        }
+        Duration slot = granularity.getDuration();
+        long slotCount = -Math.floorDiv(-Duration.between(start, to).toNanos(), slot.toNanos());
+        if (slotCount > MAX_AVAILABILITY_SLOTS) {
+            throw new InvalidDataException(String.format("Период не должен содержать больше %d интервалов.",
+                    MAX_AVAILABILITY_SLOTS));
+        }
+        BitSet busy = availabilityIndex.busySlots(item.getId(), start, slot, (int) slotCount);
+        List<AvailabilitySlotDto> slots = new ArrayList<>((int) slotCount);
+        for (int i = 0; i < slotCount; i++) {
+            LocalDateTime slotStart = start.plus(slot.multipliedBy(i));
+            slots.add(new AvailabilitySlotDto(slotStart, slotStart.plus(slot), !busy.get(i)));
+        }
+        Logger.logInfo(HttpMethod.GET, "/items/" + itemId + "/availability",
+                () -> "занято интервалов: " + busy.cardinality());
+        return ItemAvailabilityDto.builder()
+                .itemId(item.getId())
+                .from(start)
+                .to(start.plus(slot.multipliedBy(slotCount)))
+                .granularity(granularity)
+                .slots(slots)
+                .build();
     }
 
-    private void setComments(ItemDto itemDto, List<Comment> comments) {
-        itemDto.setComments(comments.stream()
-                .filter(comment -> comment.getItem().getId() == itemDto.getId())
-                .map(commentMapper::convertToDto)
-                .collect(Collectors.toList()));
+    private List<Item> findAllByIdInOrder(List<Long> itemIds) {
+        Map<Long, Item> itemsById = itemRepository.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        return itemIds.stream()
+                .map(itemsById::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    private void setBookings(List<ItemDto> itemsDto) {
+        if (itemsDto.isEmpty()) {
+            return;
+        }
+        Map<Long, ItemDto> itemsById = itemsDto.stream()
+                .collect(Collectors.toMap(ItemDto::getId, Function.identity()));
+        LocalDateTime now = LocalDateTime.now();
+        List<Booking> bookings = bookingRepository.findLastAndNextByItemIdIn(itemsById.keySet(), now);
+        for (Booking booking : bookings) {
+            ItemDto itemDto = itemsById.get(booking.getItem().getId());
+            BookingDtoShort bookingDtoShort = bookingMapper.convertToDtoShort(booking);
+            if (booking.getEnd().isBefore(now)) {
+                itemDto.setLastBooking(bookingDtoShort);
+            } else {
+                itemDto.setNextBooking(bookingDtoShort);
+            }
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.item.service;
+
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemSummary;
+
+import java.util.List;
+
+public interface ItemSummaryService {
+    void addSummary(Item item);
+
+    void markStale(long itemId);
+
+    void removeSummary(long itemId);
+
+    List<ItemSummary> getSummariesByOwner(long ownerId, int from, int size);
+}
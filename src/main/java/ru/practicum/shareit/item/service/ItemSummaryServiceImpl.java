@@ -0,0 +1,132 @@
+package ru.practicum.shareit.item.service;
+
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemSummary;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemSummaryRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Сводки пересчитываются без блокировок: запись пересчёта проверяет версию сводки, и если за это время
+ * markStale пометил её устаревшей, пересчёт откатывается, а сводка пересчитается при следующем чтении.
+ */
+@Service
+public class ItemSummaryServiceImpl implements ItemSummaryService {
+    private final ItemSummaryRepository itemSummaryRepository;
+    private final BookingRepository bookingRepository;
+    private final CommentRepository commentRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public ItemSummaryServiceImpl(ItemSummaryRepository itemSummaryRepository, BookingRepository bookingRepository,
+                                  CommentRepository commentRepository, PlatformTransactionManager transactionManager) {
+        this.itemSummaryRepository = itemSummaryRepository;
+        this.bookingRepository = bookingRepository;
+        this.commentRepository = commentRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void addSummary(Item item) {
+        itemSummaryRepository.save(ItemSummary.builder()
+                .item(item)
+                .ownerId(item.getUserId())
+                .stale(true)
+                .build());
+    }
+
+    @Override
+    public void markStale(long itemId) {
+        transactionTemplate.executeWithoutResult(status -> itemSummaryRepository.findByIdForUpdate(itemId)
+                .ifPresent(summary -> summary.setStale(true)));
+    }
+
+    @Override
+    public void removeSummary(long itemId) {
+        if (itemSummaryRepository.existsById(itemId)) {
+            itemSummaryRepository.deleteById(itemId);
+        }
+    }
+
+    @Override
+    public List<ItemSummary> getSummariesByOwner(long ownerId, int from, int size) {
+        List<ItemSummary> summaries = itemSummaryRepository.findAllByOwnerIdOrderByItemId(ownerId,
+                PageRequest.of(from / size, size)).getContent();
+        LocalDateTime now = LocalDateTime.now();
+        List<ItemSummary> outdated = summaries.stream()
+                .filter(summary -> !summary.isActual(now))
+                .collect(Collectors.toList());
+        if (!outdated.isEmpty()) {
+            refresh(outdated, now);
+        }
+        return summaries;
+    }
+
+    private void refresh(List<ItemSummary> summaries, LocalDateTime now) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> rebuild(summaries, now));
+        } catch (OptimisticLockingFailureException e) {
+            // Сводки остаются помеченными в БД, а в ответ уходит то, что успели посчитать
+        }
+    }
+
+    private void rebuild(List<ItemSummary> summaries, LocalDateTime now) {
+        Map<Long, ItemSummary> summariesById = summaries.stream()
+                .collect(Collectors.toMap(ItemSummary::getItemId, Function.identity()));
+        summaries.forEach(this::reset);
+        for (Booking booking : bookingRepository.findLastAndNextByItemIdIn(summariesById.keySet(), now)) {
+            ItemSummary summary = summariesById.get(booking.getItem().getId());
+            if (booking.getEnd().isBefore(now)) {
+                summary.setLastBookingId(booking.getId());
+                summary.setLastBookerId(booking.getBooker().getId());
+                summary.setLastStart(booking.getStart());
+                summary.setLastEnd(booking.getEnd());
+            } else {
+                summary.setNextBookingId(booking.getId());
+                summary.setNextBookerId(booking.getBooker().getId());
+                summary.setNextStart(booking.getStart());
+                summary.setNextEnd(booking.getEnd());
+                summary.setValidUntil(booking.getStart());
+            }
+        }
+        for (Object[] row : bookingRepository.findEarliestEndAfterByItemIdIn(summariesById.keySet(), now)) {
+            ItemSummary summary = summariesById.get((Long) row[0]);
+            LocalDateTime earliestEnd = (LocalDateTime) row[1];
+            if (summary.getValidUntil() == null || earliestEnd.isBefore(summary.getValidUntil())) {
+                summary.setValidUntil(earliestEnd);
+            }
+        }
+        for (Object[] row : commentRepository.findCommentStatsByItemIdIn(summariesById.keySet())) {
+            ItemSummary summary = summariesById.get((Long) row[0]);
+            summary.setCommentCount(((Long) row[1]).intValue());
+            summary.setLastCommentId((Long) row[2]);
+        }
+        itemSummaryRepository.saveAll(summaries);
+    }
+
+    private void reset(ItemSummary summary) {
+        summary.setLastBookingId(null);
+        summary.setLastBookerId(null);
+        summary.setLastStart(null);
+        summary.setLastEnd(null);
+        summary.setNextBookingId(null);
+        summary.setNextBookerId(null);
+        summary.setNextStart(null);
+        summary.setNextEnd(null);
+        summary.setCommentCount(0);
+        summary.setLastCommentId(null);
+        summary.setValidUntil(null);
+        summary.setStale(false);
+    }
+}
@@ -0,0 +1,74 @@
+package ru.practicum.shareit.logger;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.function.Supplier;
+
+/**
+ * Тело сообщения журнала. Строится в {@link #toString()}, то есть только когда сообщение действительно
+ * форматируется. Коллекция обходится поэлементно до достижения предельной длины, поэтому целиком
+ * в строку не превращается.
+ */
+class LogPayload {
+    private static final String ELLIPSIS = "…";
+
+    private final Object body;
+    private final int maxLength;
+    private final boolean sampled;
+
+    LogPayload(Object body, int maxLength, boolean sampled) {
+        this.body = body;
+        this.maxLength = maxLength;
+        this.sampled = sampled;
+    }
+
+    @Override
+    public String toString() {
+        Object value = body instanceof Supplier ? ((Supplier<?>) body).get() : body;
+        if (value instanceof Iterable) {
+            return sampled ? render((Iterable<?>) value) : "<элементов: " + count((Iterable<?>) value) + ">";
+        }
+        if (!sampled) {
+            return "<тело пропущено>";
+        }
+        String text = String.valueOf(value);
+        return text.length() > maxLength ? text.substring(0, maxLength) + ELLIPSIS : text;
+    }
+
+    private String render(Iterable<?> values) {
+        StringBuilder sb = new StringBuilder("[");
+        Iterator<?> iterator = values.iterator();
+        int rendered = 0;
+        while (iterator.hasNext()) {
+            if (sb.length() > maxLength) {
+                int rest = values instanceof Collection ? ((Collection<?>) values).size() - rendered : -1;
+                sb.setLength(maxLength);
+                sb.append(ELLIPSIS);
+                if (rest > 0) {
+                    sb.append(" (ещё элементов: ").append(rest).append(')');
+                }
+                return sb.toString();
+            }
+            if (rendered++ > 0) {
+                sb.append(", ");
+            }
+            sb.append(iterator.next());
+        }
+        if (sb.length() > maxLength) {
+            sb.setLength(maxLength);
+            return sb.append(ELLIPSIS).toString();
+        }
+        return sb.append(']').toString();
+    }
+
+    private static int count(Iterable<?> values) {
+        if (values instanceof Collection) {
+            return ((Collection<?>) values).size();
+        }
+        int count = 0;
+        for (Object ignored : values) {
+            count++;
+        }
+        return count;
+    }
+}
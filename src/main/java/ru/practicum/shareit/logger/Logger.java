@@ -3,17 +3,53 @@ package ru.practicum.shareit.logger;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpMethod;
 
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Журнал запросов и результатов. Тело передаётся объектом (или {@link Supplier}) и
+ * превращается в строку только если уровень INFO включён. Строка тела ограничивается по длине, а полностью
+ * тело выводится лишь для каждого N-го сообщения, в остальных — только число элементов.
+ */
 @Slf4j
 public class Logger {
-    public static void logRequest(HttpMethod httpMethod, String url, String body) {
-        log.info("Получен запрос {}{}. Тело запроса: {}", httpMethod, url, body);
+    private static final AtomicLong counter = new AtomicLong();
+    private static volatile int maxBodyLength = 2000;
+    private static volatile int bodySampleEvery = 1;
+
+    public static void configure(int maxBodyLength, int bodySampleEvery) {
+        if (maxBodyLength <= 0 || bodySampleEvery <= 0) {
+            throw new IllegalArgumentException("Длина тела и частота выборки должны быть положительными");
+        }
+        Logger.maxBodyLength = maxBodyLength;
+        Logger.bodySampleEvery = bodySampleEvery;
+    }
+
+    public static void logRequest(HttpMethod httpMethod, String url, Object body) {
+        if (log.isInfoEnabled()) {
+            log.info("Получен запрос {}{}. Тело запроса: {}", httpMethod, url, payload(body));
+        }
+    }
+
+    public static void logSave(HttpMethod httpMethod, String url, Object body) {
+        if (log.isInfoEnabled()) {
+            log.info("По запросу {}{} получен слудющий результат: {}", httpMethod, url, payload(body));
+        }
+    }
+
+    public static void logInfo(HttpMethod httpMethod, String url, Object message) {
+        if (log.isInfoEnabled()) {
+            log.info("Информация по запросу {}{}: {}", httpMethod, url, payload(message));
+        }
     }
 
-    public static void logSave(HttpMethod httpMethod, String url, String body) {
-        log.info("По запросу {}{} получен слудющий результат: {}", httpMethod, url, body);
+    public static void logInfo(HttpMethod httpMethod, String url, Supplier<?> message) {
+        logInfo(httpMethod, url, (Object) message);
     }
 
-    public static void logInfo(HttpMethod httpMethod, String url, String message) {
-        log.info("Информация по запросу {}{}: {}", httpMethod, url, message);
+    private static LogPayload payload(Object body) {
+        int sampleEvery = bodySampleEvery;
+        boolean sampled = sampleEvery == 1 || counter.getAndIncrement() % sampleEvery == 0;
+        return new LogPayload(body, maxBodyLength, sampled);
     }
-}
\ No newline at end of file
+}
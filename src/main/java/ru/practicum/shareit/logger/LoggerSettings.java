@@ -0,0 +1,15 @@
+package ru.practicum.shareit.logger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Передаёт настройки shareit.logging.* в статический {@link Logger}.
+ */
+@Component
+public class LoggerSettings {
+    public LoggerSettings(@Value("${shareit.logging.max-body-length:2000}") int maxBodyLength,
+                          @Value("${shareit.logging.body-sample-every:1}") int bodySampleEvery) {
+        Logger.configure(maxBodyLength, bodySampleEvery);
+    }
+}
@@ -0,0 +1,74 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Распределение repository.rows — сколько строк вернул метод репозитория (теги repository и method).
+ * Время выполнения тех же методов публикует Spring Boot: spring.data.repository.invocations.
+ * Учитываются результаты-коллекции, {@link Slice} и {@link Optional}; потоки, счётчики и флаги пропускаются.
+ */
+@Component
+@RequiredArgsConstructor
+public class RepositoryRowsMetrics implements BeanPostProcessor {
+    static final String METRIC_NAME = "repository.rows";
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof RepositoryFactoryBeanSupport) {
+            ((RepositoryFactoryBeanSupport<?, ?, ?>) bean).addRepositoryFactoryCustomizer(factory ->
+                    factory.addRepositoryProxyPostProcessor((proxyFactory, repositoryInformation) ->
+                            proxyFactory.addAdvice(new RowsInterceptor(
+                                    repositoryInformation.getRepositoryInterface().getSimpleName()))));
+        }
+        return bean;
+    }
+
+    private class RowsInterceptor implements MethodInterceptor {
+        private final String repository;
+
+        RowsInterceptor(String repository) {
+            this.repository = repository;
+        }
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            Object result = invocation.proceed();
+            int rows = rowsOf(result);
+            if (rows >= 0) {
+                DistributionSummary.builder(METRIC_NAME)
+                        .description("Количество строк, которое вернул метод репозитория")
+                        .baseUnit("rows")
+                        .tag("repository", repository)
+                        .tag("method", invocation.getMethod().getName())
+                        .register(meterRegistry.getObject())
+                        .record(rows);
+            }
+            return result;
+        }
+    }
+
+    private static int rowsOf(Object result) {
+        if (result instanceof Collection) {
+            return ((Collection<?>) result).size();
+        } else if (result instanceof Slice) {
+            return ((Slice<?>) result).getNumberOfElements();
+        } else if (result instanceof Optional) {
+            return ((Optional<?>) result).isPresent() ? 1 : 0;
+        }
+        return -1;
+    }
+}
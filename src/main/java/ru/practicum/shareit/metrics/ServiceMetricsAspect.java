@@ -0,0 +1,58 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.model.State;
+
+/**
+ * Таймер service.method на каждый публичный метод ItemService, BookingService, UserService и ItemRequestService.
+ * Теги: class, method, state (аргумент {@link State} у выборок бронирований, иначе none) и exception.
+ * Перцентили задаются в application.properties (management.metrics.distribution.*).
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class ServiceMetricsAspect {
+    static final String METRIC_NAME = "service.method";
+    private static final String NONE = "none";
+
+    private final MeterRegistry meterRegistry;
+
+    @Around("execution(public * ru.practicum.shareit.item.service.ItemService.*(..))"
+            + " || execution(public * ru.practicum.shareit.booking.service.BookingService.*(..))"
+            + " || execution(public * ru.practicum.shareit.user.service.UserService.*(..))"
+            + " || execution(public * ru.practicum.shareit.request.service.ItemRequestService.*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String exception = NONE;
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            sample.stop(Timer.builder(METRIC_NAME)
+                    .description("Время выполнения метода сервиса")
+                    .tag("class", AopUtils.getTargetClass(joinPoint.getTarget()).getSimpleName())
+                    .tag("method", joinPoint.getSignature().getName())
+                    .tag("state", stateOf(joinPoint.getArgs()))
+                    .tag("exception", exception)
+                    .register(meterRegistry));
+        }
+    }
+
+    private static String stateOf(Object[] args) {
+        for (Object arg : args) {
+            if (arg instanceof State) {
+                return ((State) arg).name();
+            }
+        }
+        return NONE;
+    }
+}
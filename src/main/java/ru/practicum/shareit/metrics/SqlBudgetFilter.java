@@ -0,0 +1,96 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.UrlPathHelper;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * Считает SQL-запросы и время JDBC на каждый HTTP-запрос и сверяет их с бюджетом из {@link SqlBudgetProperties}.
+ * Число запросов публикуется метрикой http.server.sql.statements с тегами method и uri (шаблон пути).
+ * В диагностическом режиме (shareit.sql.headers=true) к ответу добавляются X-Sql-Count и X-Sql-Time
+ * (миллисекунды); чтобы заголовки успели попасть в ответ, тело буферизуется до конца обработки. С действием
+ * FAIL тело тоже буферизуется: бюджет проверяется до отправки ответа, и превышение приходит клиенту ошибкой,
+ * а не уже отправленным 200. Потоковые ответы (shareit.sql.streaming) не буферизуются никогда; если такой
+ * ответ уже начал отправляться, превышение только пишется в лог.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SqlBudgetFilter extends OncePerRequestFilter {
+    static final String METRIC_NAME = "http.server.sql.statements";
+    static final String COUNT_HEADER = "X-Sql-Count";
+    static final String TIME_HEADER = "X-Sql-Time";
+    private static final String UNKNOWN = "UNKNOWN";
+    private static final PathMatcher PATH_MATCHER = new AntPathMatcher();
+    private static final UrlPathHelper PATH_HELPER = new UrlPathHelper();
+
+    private final SqlBudgetProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean fail = properties.getAction() == SqlBudgetProperties.Action.FAIL;
+        ContentCachingResponseWrapper bufferedResponse = (properties.isHeaders() || fail) && !isStreaming(request)
+                ? new ContentCachingResponseWrapper(response)
+                : null;
+        SqlStatistics statistics = SqlStatistics.start();
+        try {
+            filterChain.doFilter(request, bufferedResponse == null ? response : bufferedResponse);
+        } finally {
+            SqlStatistics.stop();
+        }
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern == null ? UNKNOWN : pattern.toString();
+        DistributionSummary.builder(METRIC_NAME)
+                .description("Количество SQL-запросов на один HTTP-запрос")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(statistics.getStatements());
+        // Исключение до copyBodyToResponse: буферизованный ответ ещё не отправлен, контейнер заменит его ошибкой
+        checkBudget(request.getMethod() + " " + uri, properties.budgetOf(uri), statistics,
+                fail && !response.isCommitted() && !request.isAsyncStarted());
+        if (bufferedResponse != null) {
+            if (properties.isHeaders()) {
+                bufferedResponse.setHeader(COUNT_HEADER, String.valueOf(statistics.getStatements()));
+                bufferedResponse.setHeader(TIME_HEADER,
+                        String.format(Locale.ROOT, "%.3f", statistics.getJdbcNanos() / 1_000_000.0));
+            }
+            bufferedResponse.copyBodyToResponse();
+        }
+    }
+
+    private boolean isStreaming(HttpServletRequest request) {
+        String path = PATH_HELPER.getPathWithinApplication(request);
+        return properties.getStreaming().stream()
+                .anyMatch(pattern -> PATH_MATCHER.match(pattern, path));
+    }
+
+    private void checkBudget(String endpoint, int budget, SqlStatistics statistics, boolean fail) {
+        if (statistics.getStatements() <= budget) {
+            return;
+        }
+        String message = String.format("%s выполнил %d SQL-запросов при бюджете %d", endpoint,
+                statistics.getStatements(), budget);
+        if (fail) {
+            throw new SqlBudgetExceededException(message);
+        }
+        log.warn(message);
+    }
+}
@@ -0,0 +1,52 @@
+package ru.practicum.shareit.metrics;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Настройки shareit.sql.*: бюджет SQL-запросов на HTTP-запрос и диагностические заголовки.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "shareit.sql")
+public class SqlBudgetProperties {
+    /**
+     * Добавлять к ответу заголовки X-Sql-Count и X-Sql-Time. Тело ответа при этом буферизуется.
+     */
+    private boolean headers = false;
+    /**
+     * Сколько SQL-запросов допустимо на один HTTP-запрос.
+     */
+    private int budget = 20;
+    /**
+     * Бюджеты отдельных эндпоинтов по шаблону пути, например shareit.sql.endpoints[/bookings/owner]=5.
+     */
+    private Map<String, Integer> endpoints = new HashMap<>();
+    /**
+     * Что делать при превышении: LOG пишет предупреждение, FAIL бросает {@link SqlBudgetExceededException}
+     * до отправки ответа (тело буферизуется), и клиент получает 500.
+     */
+    private Action action = Action.LOG;
+    /**
+     * Шаблоны путей с потоковым ответом: их тело не буферизуется даже при headers=true, заголовки X-Sql-*
+     * не добавляются. SQL, выполненный при записи такого ответа в асинхронном потоке, не учитывается.
+     */
+    private List<String> streaming = new ArrayList<>(List.of("/v2/**", "/bookings/export", "/bookings/owner/export"));
+
+    public int budgetOf(String endpoint) {
+        return endpoints.getOrDefault(endpoint, budget);
+    }
+
+    public enum Action {
+        LOG,
+        FAIL
+    }
+}
@@ -0,0 +1,37 @@
+package ru.practicum.shareit.metrics;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.beans.BeanUtils;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.util.Map;
+
+/**
+ * Считает SQL-запросы Hibernate для {@link SqlStatistics}. Если в настройках уже задан другой
+ * StatementInspector (например, в тестах), он вызывается следом.
+ */
+@Component
+public class SqlStatementInspector implements HibernatePropertiesCustomizer {
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        StatementInspector configured = instantiate(hibernateProperties.get(AvailableSettings.STATEMENT_INSPECTOR));
+        hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, (StatementInspector) sql -> {
+            SqlStatistics.statementPrepared();
+            return configured == null ? sql : configured.inspect(sql);
+        });
+    }
+
+    private static StatementInspector instantiate(Object configured) {
+        if (configured == null || configured instanceof StatementInspector) {
+            return (StatementInspector) configured;
+        }
+        Class<?> type = configured instanceof Class
+                ? (Class<?>) configured
+                : ClassUtils.resolveClassName(configured.toString(), null);
+        return (StatementInspector) BeanUtils.instantiateClass(type);
+    }
+}
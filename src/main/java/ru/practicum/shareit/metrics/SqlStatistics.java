@@ -0,0 +1,44 @@
+package ru.practicum.shareit.metrics;
+
+/**
+ * Счётчики SQL текущего HTTP-запроса. Открываются {@link SqlBudgetFilter} в потоке запроса; SQL, выполненный
+ * вне запроса (планировщики, прогрев индексов), не учитывается.
+ */
+public class SqlStatistics {
+    private static final ThreadLocal<SqlStatistics> current = new ThreadLocal<>();
+
+    private int statements;
+    private long jdbcNanos;
+
+    static SqlStatistics start() {
+        SqlStatistics statistics = new SqlStatistics();
+        current.set(statistics);
+        return statistics;
+    }
+
+    static void stop() {
+        current.remove();
+    }
+
+    static void statementPrepared() {
+        SqlStatistics statistics = current.get();
+        if (statistics != null) {
+            statistics.statements++;
+        }
+    }
+
+    static void jdbcExecuted(long nanos) {
+        SqlStatistics statistics = current.get();
+        if (statistics != null) {
+            statistics.jdbcNanos += nanos;
+        }
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getJdbcNanos() {
+        return jdbcNanos;
+    }
+}
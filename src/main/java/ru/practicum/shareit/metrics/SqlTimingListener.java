@@ -0,0 +1,32 @@
+package ru.practicum.shareit.metrics;
+
+import org.hibernate.BaseSessionEventListener;
+
+/**
+ * Время выполнения JDBC-запросов для {@link SqlStatistics}. Hibernate создаёт экземпляр на каждую сессию
+ * по свойству hibernate.session.events.auto.
+ */
+public class SqlTimingListener extends BaseSessionEventListener {
+    private long executeStart;
+    private long batchStart;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        executeStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        SqlStatistics.jdbcExecuted(System.nanoTime() - executeStart);
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        batchStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        SqlStatistics.jdbcExecuted(System.nanoTime() - batchStart);
+    }
+}
@@ -0,0 +1,88 @@
+package ru.practicum.shareit.reactive;
+
+import io.r2dbc.h2.H2ConnectionConfiguration;
+import io.r2dbc.h2.H2ConnectionFactory;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.time.Duration;
+
+/**
+ * Пул R2DBC-соединений к той же БД, что и у JPA, для потоковых выборок /v2. Адрес по умолчанию выводится
+ * из JDBC-адреса DataSource (в том числе встроенной H2 в тестах), для других СУБД его можно задать
+ * в shareit.r2dbc.url. ConnectionFactory намеренно не регистрируется бином: Spring Boot при наличии
+ * такого бина отключает автонастройку DataSource, на котором работают JPA и Flyway.
+ */
+@Component
+public class ReactiveDatabase implements DisposableBean {
+    private static final String JDBC_PREFIX = "jdbc:";
+    private static final String JDBC_H2_PREFIX = "jdbc:h2:";
+
+    private final ConnectionPool pool;
+    private final DatabaseClient client;
+
+    public ReactiveDatabase(DataSource dataSource, DataSourceProperties dataSourceProperties,
+                            @Value("${shareit.r2dbc.url:}") String url,
+                            @Value("${shareit.r2dbc.pool.max-size:10}") int maxSize,
+                            @Value("${shareit.r2dbc.pool.max-acquire-time:PT2S}") Duration maxAcquireTime)
+            throws SQLException {
+        String jdbcUrl;
+        String username;
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            jdbcUrl = metaData.getURL();
+            username = metaData.getUserName();
+        }
+        ConnectionFactory connectionFactory = connectionFactory(url.isBlank() ? jdbcUrl : url, username,
+                dataSourceProperties.determinePassword());
+        pool = new ConnectionPool(ConnectionPoolConfiguration.builder(connectionFactory)
+                .name("r2dbc")
+                .maxSize(maxSize)
+                .initialSize(0)
+                .maxAcquireTime(maxAcquireTime)
+                .build());
+        client = DatabaseClient.create(pool);
+    }
+
+    public DatabaseClient getClient() {
+        return client;
+    }
+
+    @Override
+    public void destroy() {
+        pool.dispose();
+    }
+
+    private static ConnectionFactory connectionFactory(String url, String username, String password) {
+        if (url.startsWith(JDBC_H2_PREFIX)) {   // У r2dbc-h2 свой формат адреса, путь к БД передаётся как есть
+            return new H2ConnectionFactory(H2ConnectionConfiguration.builder()
+                    .url(url.substring(JDBC_H2_PREFIX.length()))
+                    .username(username)
+                    .password(password == null ? "" : password)
+                    .build());
+        }
+        ConnectionFactoryOptions.Builder options = ConnectionFactoryOptions.parse(url.startsWith(JDBC_PREFIX)
+                        ? "r2dbc:" + url.substring(JDBC_PREFIX.length())
+                        : url)
+                .mutate();
+        if (username != null) {
+            options.option(ConnectionFactoryOptions.USER, username);
+        }
+        if (password != null) {
+            options.option(ConnectionFactoryOptions.PASSWORD, password);
+        }
+        return ConnectionFactories.get(options.build());
+    }
+}
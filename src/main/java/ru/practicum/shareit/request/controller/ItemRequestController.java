@@ -25,7 +25,7 @@ public class ItemRequestController {
         // Добавить новый запрос вещи.
     ItemRequestDto createItemRequest(@RequestHeader("X-Sharer-User-Id") long userId,
                                      @RequestBody @Valid ItemRequestDto itemRequestDto) {
-        Logger.logRequest(HttpMethod.POST, "/requests", itemRequestDto.toString());
+        Logger.logRequest(HttpMethod.POST, "/requests", itemRequestDto);
         return itemRequestService.createItemRequest(userId, itemRequestDto);
     }
 
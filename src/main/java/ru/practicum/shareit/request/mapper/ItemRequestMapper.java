@@ -1,23 +1,26 @@
 package ru.practicum.shareit.request.mapper;
 
-import org.modelmapper.ModelMapper;
 import org.springframework.stereotype.Component;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.model.ItemRequest;
 
 @Component
 public class ItemRequestMapper {
-    private final ModelMapper modelMapper;
-
-    public ItemRequestMapper() {
-        modelMapper = new ModelMapper();
-    }
 
     public ItemRequestDto convertToDto(ItemRequest itemRequest) {
-        return modelMapper.map(itemRequest, ItemRequestDto.class);
+        return ItemRequestDto.builder()
+                .id(itemRequest.getId())
+                .authorId(itemRequest.getAuthor() == null ? 0 : itemRequest.getAuthor().getId())
+                .description(itemRequest.getDescription())
+                .created(itemRequest.getCreated())
+                .build();
     }
 
-    public ItemRequest convertFromDto(ItemRequestDto itemRequestDto) {
-        return modelMapper.map(itemRequestDto, ItemRequest.class);
+    public ItemRequest convertFromDto(ItemRequestDto itemRequestDto) {   // Автора выставляет сервис
+        return ItemRequest.builder()
+                .id(itemRequestDto.getId())
+                .description(itemRequestDto.getDescription())
+                .created(itemRequestDto.getCreated())
+                .build();
     }
 }
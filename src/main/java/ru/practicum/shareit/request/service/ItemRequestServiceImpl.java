@@ -7,6 +7,7 @@ import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpMethod;
 import org.springframework.stereotype.Service;
 import ru.practicum.shareit.exception.ObjectNotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
@@ -17,9 +18,13 @@ import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserRegistry;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -30,6 +35,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     private final ItemRepository itemRepository;
     private final ItemMapper itemMapper;
     private final UserRepository userRepository;
+    private final UserRegistry userRegistry;
 
     @Override
     public ItemRequestDto createItemRequest(long userId, ItemRequestDto itemRequestDto) {
@@ -39,23 +45,20 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         itemRequest.setAuthor(author);
         itemRequest.setCreated(LocalDateTime.now());
         ItemRequest itemRequestSaved = itemRequestRepository.save(itemRequest);
-        Logger.logSave(HttpMethod.POST, "/requests", itemRequestSaved.toString());
+        Logger.logSave(HttpMethod.POST, "/requests", itemRequestSaved);
         return itemRequestMapper.convertToDto(itemRequestSaved);
     }
 
     @Override
     public List<ItemRequestDto> getItemRequestsByAuthor(long userId, int from, int size) {
         Pageable sortedByCreated = PageRequest.of(from / size, size, Sort.by("created").descending());
-        User author = userRepository.findById(userId).orElseThrow(() ->
-                new ObjectNotFoundException(String.format("Пользователь с id %s не найден", userId)));
-        List<ItemRequestDto> itemRequestsDto = itemRequestRepository.findAllByAuthorId(author.getId(),
+        userRegistry.checkExists(userId);
+        List<ItemRequestDto> itemRequestsDto = itemRequestRepository.findAllByAuthorId(userId,
                         sortedByCreated).stream()
                 .map(itemRequestMapper::convertToDto)
                 .collect(Collectors.toList());
-        List<Item> items = itemRepository.findAllByRequestIdNotNull();
-        itemRequestsDto
-                .forEach(itemRequestDto -> setItemsForRequest(itemRequestDto, items));
-        Logger.logSave(HttpMethod.GET, "/requests", itemRequestsDto.toString());
+        setItems(itemRequestsDto);
+        Logger.logSave(HttpMethod.GET, "/requests", itemRequestsDto);
         return itemRequestsDto;
     }
 
@@ -66,30 +69,36 @@ public class ItemRequestServiceImpl implements ItemRequestService {
                 .stream()
                 .map(itemRequestMapper::convertToDto)
                 .collect(Collectors.toList());
-        List<Item> items = itemRepository.findAllByRequestIdNotNull();
-        itemRequestsDto
-                .forEach(itemRequestDto -> setItemsForRequest(itemRequestDto, items));
-        Logger.logSave(HttpMethod.GET, "/requests/all", itemRequestsDto.toString());
+        setItems(itemRequestsDto);
+        Logger.logSave(HttpMethod.GET, "/requests/all", itemRequestsDto);
         return itemRequestsDto;
     }
 
     @Override
     public ItemRequestDto getItemRequestById(long userId, long requestId) {
-        userRepository.findById(userId).orElseThrow(() ->
-                new ObjectNotFoundException(String.format("Пользователь с id %s не найден", userId)));
+        userRegistry.checkExists(userId);
         ItemRequest itemRequest = itemRequestRepository.findItemRequestById(requestId).orElseThrow(() ->
                 new ObjectNotFoundException(String.format("Запрос с id %s не найден", requestId)));
         ItemRequestDto itemRequestDto = itemRequestMapper.convertToDto(itemRequest);
-        List<Item> items = itemRepository.findAllByRequestId(requestId);
-        setItemsForRequest(itemRequestDto, items);
-        Logger.logSave(HttpMethod.GET, "/requests/" + requestId, itemRequestDto.toString());
+        setItems(List.of(itemRequestDto));
+        Logger.logSave(HttpMethod.GET, "/requests/" + requestId, itemRequestDto);
         return itemRequestDto;
     }
 
-    private void setItemsForRequest(ItemRequestDto itemRequestDto, List<Item> items) {
-        itemRequestDto.setItems(items.stream()
-                .filter(item -> item.getRequest().getId() == itemRequestDto.getId())
-                .map(itemMapper::convertToDto)
-                .collect(Collectors.toList()));
+    // Вещи загружаются одним запросом только для запросов текущей страницы
+    private void setItems(List<ItemRequestDto> itemRequestsDto) {
+        if (itemRequestsDto.isEmpty()) {
+            return;
+        }
+        List<Long> requestIds = itemRequestsDto.stream()
+                .map(ItemRequestDto::getId)
+                .collect(Collectors.toList());
+        Map<Long, List<ItemDto>> itemsByRequestId = new HashMap<>();
+        for (Item item : itemRepository.findAllByRequestIdIn(requestIds)) {
+            itemsByRequestId.computeIfAbsent(item.getRequest().getId(), requestId -> new ArrayList<>())
+                    .add(itemMapper.convertToDto(item));
+        }
+        itemRequestsDto.forEach(itemRequestDto -> itemRequestDto.setItems(
+                itemsByRequestId.getOrDefault(itemRequestDto.getId(), new ArrayList<>())));
     }
 }
@@ -19,13 +19,13 @@ public class UserController {
 
     @PostMapping
     public UserDto addUser(@Valid @RequestBody UserDto userDto) throws DataExistException {
-        Logger.logRequest(HttpMethod.POST, "/users", userDto.toString());
+        Logger.logRequest(HttpMethod.POST, "/users", userDto);
         return userService.addUser(userDto);
     }
 
     @PatchMapping("/{userId}")
     public UserDto updateUser(@PathVariable long userId, @RequestBody UserDto userDto) throws DataExistException {
-        Logger.logRequest(HttpMethod.PATCH, "/users/" + userId, userDto.toString());
+        Logger.logRequest(HttpMethod.PATCH, "/users/" + userId, userDto);
         return userService.updateUser(userId, userDto);
     }
 
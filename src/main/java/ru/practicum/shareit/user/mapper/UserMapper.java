@@ -1,23 +1,17 @@
 package ru.practicum.shareit.user.mapper;
 
-import org.modelmapper.ModelMapper;
 import org.springframework.stereotype.Component;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 
 @Component
 public class UserMapper {
-    private final ModelMapper modelMapper;
-
-    public UserMapper() {
-        modelMapper = new ModelMapper();
-    }
 
     public UserDto convertToDto(User user) {
-        return modelMapper.map(user, UserDto.class);
+        return new UserDto(user.getId(), user.getEmail(), user.getName());
     }
 
     public User convertFromDto(UserDto userDto) {
-        return modelMapper.map(userDto, User.class);
+        return new User(userDto.getId(), userDto.getEmail(), userDto.getName());
     }
-}
\ No newline at end of file
+}
@@ -1,7 +1,12 @@
 package ru.practicum.shareit.user.repository;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.user.model.User;
 
 public interface UserRepository extends JpaRepository<User, Long> {
-}
\ No newline at end of file
+    @Query(value = "select u.id from User u")
+    Slice<Long> findAllIds(Pageable pageable);
+}
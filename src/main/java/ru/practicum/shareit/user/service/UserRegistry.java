@@ -0,0 +1,122 @@
+package ru.practicum.shareit.user.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.exception.ObjectNotFoundException;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Множество id существующих пользователей для проверки заголовка X-Sharer-User-Id без загрузки User.
+ * Заполняется при старте приложения и обновляется при добавлении и удалении пользователей. Id, которого нет
+ * в множестве, проверяется запросом к БД: пользователь мог появиться до окончания заполнения.
+ * Каждое удаление увеличивает номер поколения. Id, прочитанные из БД, попадают в множество, только если
+ * за время запроса поколение не сменилось: иначе чтение могло застать ещё не удалённую строку.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserRegistry {
+    private static final int WARM_UP_PAGE_SIZE = 10000;
+
+    private final UserRepository userRepository;
+    private final Set<Long> userIds = ConcurrentHashMap.newKeySet();
+    private final Object lock = new Object();
+    private long generation;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        Slice<Long> page;
+        int pageNumber = 0;
+        do {
+            long observed = generation();
+            page = userRepository.findAllIds(PageRequest.of(pageNumber++, WARM_UP_PAGE_SIZE, Sort.by("id")));
+            addIfUnchanged(page.getContent(), observed);   // Иначе id страницы проверятся в exists() по одному
+        } while (page.hasNext());
+    }
+
+    public void checkExists(long userId) {
+        if (!exists(userId)) {
+            throw new ObjectNotFoundException(String.format("Пользователь с id %s не найден", userId));
+        }
+    }
+
+    public boolean exists(long userId) {
+        if (userIds.contains(userId)) {
+            return true;
+        }
+        long observed = generation();
+        if (userRepository.existsById(userId)) {
+            addIfUnchanged(List.of(userId), observed);
+            return true;
+        }
+        return false;
+    }
+
+    public void add(long userId) {
+        userIds.add(userId);
+        resyncAfterCompletion(userId, false);
+    }
+
+    public void remove(long userId) {
+        forget(userId);
+        // До коммита удаления exists() из параллельного запроса ещё видит строку в БД: после коммита
+        // поколение увеличивается повторно, и такой результат в множество не попадёт
+        resyncAfterCompletion(userId, true);
+    }
+
+    private void resyncAfterCompletion(long userId, boolean removed) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_ROLLED_BACK) {
+                        resync(userId);
+                    } else if (removed) {
+                        forget(userId);
+                    }
+                }
+            });
+        }
+    }
+
+    private void resync(long userId) {
+        long observed = generation();
+        if (userRepository.existsById(userId)) {
+            addIfUnchanged(List.of(userId), observed);
+        } else {
+            forget(userId);
+        }
+    }
+
+    private long generation() {
+        synchronized (lock) {
+            return generation;
+        }
+    }
+
+    private void addIfUnchanged(Collection<Long> ids, long observed) {
+        synchronized (lock) {
+            if (generation == observed) {
+                userIds.addAll(ids);
+            }
+        }
+    }
+
+    private void forget(long userId) {
+        synchronized (lock) {
+            generation++;
+            userIds.remove(userId);
+        }
+    }
+}
@@ -6,12 +6,18 @@ import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 import ru.practicum.shareit.exception.DataExistException;
 import ru.practicum.shareit.exception.ObjectNotFoundException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchCache;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
 import ru.practicum.shareit.logger.Logger;
+import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import javax.persistence.EntityManagerFactory;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -20,13 +26,19 @@ import java.util.stream.Collectors;
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
     private final UserMapper userMapper;
+    private final EntityManagerFactory entityManagerFactory;
+    private final UserRegistry userRegistry;
+    private final ItemRepository itemRepository;
+    private final ItemSearchIndex searchIndex;
+    private final ItemSearchCache searchCache;
 
     @Override
     public UserDto addUser(UserDto userDto) {
         User user = userMapper.convertFromDto(userDto);
         try {
             User userSaved = userRepository.save(user);
-            Logger.logSave(HttpMethod.POST, "/users", userSaved.toString());
+            userRegistry.add(userSaved.getId());
+            Logger.logSave(HttpMethod.POST, "/users", userSaved);
             return userMapper.convertToDto(userSaved);
         } catch (RuntimeException e) {
             throw new DataExistException(String.format("Пользователь с email %s уже есть в базе", user.getEmail()));
@@ -46,7 +58,7 @@ public class UserServiceImpl implements UserService {
                 targetUser.setName(user.getName());
             }
             User userSaved = userRepository.save(targetUser);
-            Logger.logSave(HttpMethod.PATCH, "/users/" + id, userSaved.toString());
+            Logger.logSave(HttpMethod.PATCH, "/users/" + id, userSaved);
             return userMapper.convertToDto(userSaved);
         } catch (RuntimeException e) {
             throw new DataExistException(String.format("Пользователь с email %s уже есть в базе", user.getEmail()));
@@ -57,14 +69,14 @@ public class UserServiceImpl implements UserService {
     public UserDto getUserById(long userId) {
         User user = userRepository.findById(userId).orElseThrow(() ->
                 new ObjectNotFoundException(String.format("Пользователь с id %s не найден", userId)));
-        Logger.logSave(HttpMethod.GET, "/users/" + userId, user.toString());
+        Logger.logSave(HttpMethod.GET, "/users/" + userId, user);
         return userMapper.convertToDto(user);
     }
 
     @Override
     public List<UserDto> getAllUsers() {
         List<User> users = userRepository.findAll();
-        Logger.logSave(HttpMethod.GET, "/users", users.toString());
+        Logger.logSave(HttpMethod.GET, "/users", users);
         return users.stream()
                 .map(userMapper::convertToDto)
                 .collect(Collectors.toList());
@@ -72,6 +84,15 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public void removeUser(long id) {
+        List<Item> items = itemRepository.findAllByUserId(id);
         userRepository.deleteById(id);
+        userRegistry.remove(id);
+        for (Item item : items) {   // Иначе удалённые вещи занимали бы места в выдаче поиска и в кэше запросов
+            searchIndex.remove(item.getId());
+            searchCache.invalidate(item);
+        }
+        // Вещи и запросы пользователя удаляет каскад в базе, мимо Hibernate: их записи в кэше второго уровня устарели
+        entityManagerFactory.getCache().evict(Item.class);
+        entityManagerFactory.getCache().evict(ItemRequest.class);
     }
 }
\ No newline at end of file
@@ -0,0 +1,18 @@
+-- Бронирования арендатора: ALL, FUTURE, CURRENT и выборка по курсору (start desc, id desc)
+CREATE INDEX IF NOT EXISTS bookings_booker_start_idx ON bookings (booker_id, start_booking, id);
+-- Бронирования арендатора: WAITING, REJECTED
+CREATE INDEX IF NOT EXISTS bookings_booker_status_start_idx ON bookings (booker_id, status, start_booking);
+-- Бронирования арендатора: PAST
+CREATE INDEX IF NOT EXISTS bookings_booker_end_idx ON bookings (booker_id, end_booking);
+
+-- Бронирования владельца (через items.user_id), последнее/ближайшее бронирование вещи, проверка пересечений
+CREATE INDEX IF NOT EXISTS bookings_item_start_idx ON bookings (item_id, start_booking);
+CREATE INDEX IF NOT EXISTS bookings_item_status_start_idx ON bookings (item_id, status, start_booking);
+CREATE INDEX IF NOT EXISTS bookings_item_end_idx ON bookings (item_id, end_booking);
+-- Проверка права оставить отзыв
+CREATE INDEX IF NOT EXISTS bookings_item_booker_status_idx ON bookings (item_id, booker_id, status);
+
+CREATE INDEX IF NOT EXISTS items_user_idx ON items (user_id, id);
+CREATE INDEX IF NOT EXISTS items_request_idx ON items (request_id);
+CREATE INDEX IF NOT EXISTS comments_item_idx ON comments (item_id, created);
+CREATE INDEX IF NOT EXISTS requests_author_created_idx ON requests (author_id, created);
@@ -0,0 +1,15 @@
+-- Владелец вещи дублируется в бронировании, чтобы выборки для владельца не соединялись с items.
+-- Владелец вещи не меняется, при удалении вещи или пользователя бронирования удаляются каскадно.
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS owner_id BIGINT REFERENCES users (id) ON DELETE CASCADE;
+
+UPDATE bookings SET owner_id = (SELECT i.user_id FROM items i WHERE i.id = bookings.item_id)
+WHERE owner_id IS NULL;
+
+ALTER TABLE bookings ALTER COLUMN owner_id SET NOT NULL;
+
+-- Бронирования владельца: ALL, FUTURE, CURRENT и выборка по курсору
+CREATE INDEX IF NOT EXISTS bookings_owner_start_idx ON bookings (owner_id, start_booking, id);
+-- Бронирования владельца: WAITING, REJECTED
+CREATE INDEX IF NOT EXISTS bookings_owner_status_start_idx ON bookings (owner_id, status, start_booking);
+-- Бронирования владельца: PAST
+CREATE INDEX IF NOT EXISTS bookings_owner_end_idx ON bookings (owner_id, end_booking);
@@ -0,0 +1,23 @@
+-- Фаза бронирования относительно текущего времени (FUTURE, CURRENT, PAST). Задаётся при сохранении
+-- и сдвигается планировщиком, поэтому фильтры state=FUTURE/CURRENT/PAST — равенство по индексу.
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS phase VARCHAR(20);
+
+UPDATE bookings SET phase = CASE
+    WHEN end_booking <= LOCALTIMESTAMP THEN 'PAST'
+    WHEN start_booking > LOCALTIMESTAMP THEN 'FUTURE'
+    ELSE 'CURRENT' END
+WHERE phase IS NULL;
+
+ALTER TABLE bookings ALTER COLUMN phase SET NOT NULL;
+
+UPDATE bookings SET status = 'COMPLETED' WHERE status = 'APPROVED' AND phase = 'PAST';
+
+CREATE INDEX IF NOT EXISTS bookings_booker_phase_start_idx ON bookings (booker_id, phase, start_booking, id);
+CREATE INDEX IF NOT EXISTS bookings_owner_phase_start_idx ON bookings (owner_id, phase, start_booking, id);
+-- Для планировщика: поиск бронирований, у которых наступил start или end
+CREATE INDEX IF NOT EXISTS bookings_phase_start_idx ON bookings (phase, start_booking);
+CREATE INDEX IF NOT EXISTS bookings_phase_end_idx ON bookings (phase, end_booking);
+
+-- PAST больше не выбирается диапазоном по end_booking
+DROP INDEX IF EXISTS bookings_booker_end_idx;
+DROP INDEX IF EXISTS bookings_owner_end_idx;
@@ -0,0 +1,16 @@
+-- Архив завершённых бронирований старше горизонта хранения (shareit.booking-archive.horizon).
+-- Сюда попадают только бронирования со статусом COMPLETED, поэтому статус и фаза не хранятся,
+-- а индексы — только под выборки ALL и PAST и проверку права оставить комментарий.
+CREATE TABLE IF NOT EXISTS bookings_archive
+(
+    id BIGINT PRIMARY KEY,
+    item_id BIGINT REFERENCES items (id) ON DELETE CASCADE,
+    booker_id BIGINT REFERENCES users (id) ON DELETE CASCADE,
+    owner_id BIGINT NOT NULL REFERENCES users (id) ON DELETE CASCADE,
+    start_booking TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    end_booking TIMESTAMP WITHOUT TIME ZONE NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS bookings_archive_booker_start_idx ON bookings_archive (booker_id, start_booking, id);
+CREATE INDEX IF NOT EXISTS bookings_archive_owner_start_idx ON bookings_archive (owner_id, start_booking, id);
+CREATE INDEX IF NOT EXISTS bookings_archive_item_booker_idx ON bookings_archive (item_id, booker_id);
@@ -0,0 +1,26 @@
+-- Read-модель для GET /items (см. ItemSummary); вынесена из V1, чтобы уже существующая БД получила её после baseline
+CREATE TABLE IF NOT EXISTS item_summary
+(
+    item_id BIGINT PRIMARY KEY REFERENCES items (id) ON DELETE CASCADE,
+    owner_id BIGINT NOT NULL,
+    last_booking_id BIGINT,
+    last_booker_id BIGINT,
+    last_start TIMESTAMP WITHOUT TIME ZONE,
+    last_end TIMESTAMP WITHOUT TIME ZONE,
+    next_booking_id BIGINT,
+    next_booker_id BIGINT,
+    next_start TIMESTAMP WITHOUT TIME ZONE,
+    next_end TIMESTAMP WITHOUT TIME ZONE,
+    comment_count INTEGER DEFAULT 0 NOT NULL,
+    last_comment_id BIGINT,
+    stale BOOLEAN DEFAULT TRUE NOT NULL,
+    valid_until TIMESTAMP WITHOUT TIME ZONE
+);
+
+CREATE INDEX IF NOT EXISTS item_summary_owner_idx ON item_summary (owner_id, item_id);
+
+-- Сводки для уже существующих вещей: помечены устаревшими и пересчитаются при первом чтении
+INSERT INTO item_summary (item_id, owner_id, stale)
+SELECT i.id, i.user_id, TRUE
+FROM items i
+WHERE NOT EXISTS (SELECT 1 FROM item_summary s WHERE s.item_id = i.id);
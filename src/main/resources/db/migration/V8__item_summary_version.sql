@@ -0,0 +1,2 @@
+-- Версия для оптимистической блокировки ItemSummary: пересчёт не затирает отметку stale, сделанную параллельно
+ALTER TABLE item_summary ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL;
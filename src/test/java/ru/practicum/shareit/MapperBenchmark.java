@@ -0,0 +1,108 @@
+package ru.practicum.shareit;
+
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Phase;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.mapper.CommentMapper;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.mapper.ItemRequestMapper;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.mapper.UserMapper;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравнение ModelMapper (прежняя реализация мапперов) с текущими мапперами на convertToDto каждой сущности.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MapperBenchmark {
+    private final ModelMapper modelMapper = new ModelMapper();
+    private final UserMapper userMapper = new UserMapper();
+    private final ItemMapper itemMapper = new ItemMapper();
+    private final BookingMapper bookingMapper = new BookingMapper();
+    private final CommentMapper commentMapper = new CommentMapper();
+    private final ItemRequestMapper itemRequestMapper = new ItemRequestMapper();
+
+    private User user;
+    private Item item;
+    private Booking booking;
+    private Comment comment;
+    private ItemRequest itemRequest;
+
+    @Setup
+    public void createEntities() {
+        LocalDateTime now = LocalDateTime.now();
+        user = new User(1L, "user@mail.ru", "User");
+        itemRequest = new ItemRequest(1L, user, "Нужна дрель", now);
+        item = new Item(1L, 2L, "Дрель", "Простая дрель", true, itemRequest);
+        booking = new Booking(1L, item, user, item.getUserId(), Status.APPROVED, now, now.plusDays(1), Phase.CURRENT);
+        comment = new Comment(1L, "Отличная дрель", item, user, now);
+    }
+
+    @Benchmark
+    public UserDto userModelMapper() {
+        return modelMapper.map(user, UserDto.class);
+    }
+
+    @Benchmark
+    public UserDto userMapper() {
+        return userMapper.convertToDto(user);
+    }
+
+    @Benchmark
+    public ItemDto itemModelMapper() {
+        return modelMapper.map(item, ItemDto.class);
+    }
+
+    @Benchmark
+    public ItemDto itemMapper() {
+        return itemMapper.convertToDto(item);
+    }
+
+    @Benchmark
+    public BookingDto bookingModelMapper() {
+        return modelMapper.map(booking, BookingDto.class);
+    }
+
+    @Benchmark
+    public BookingDto bookingMapper() {
+        return bookingMapper.convertToDto(booking);
+    }
+
+    @Benchmark
+    public CommentDto commentModelMapper() {
+        return modelMapper.map(comment, CommentDto.class);
+    }
+
+    @Benchmark
+    public CommentDto commentMapper() {
+        return commentMapper.convertToDto(comment);
+    }
+
+    @Benchmark
+    public ItemRequestDto itemRequestModelMapper() {
+        return modelMapper.map(itemRequest, ItemRequestDto.class);
+    }
+
+    @Benchmark
+    public ItemRequestDto itemRequestMapper() {
+        return itemRequestMapper.convertToDto(itemRequest);
+    }
+}
@@ -0,0 +1,137 @@
+package ru.practicum.shareit;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.model.Phase;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Общая часть бенчмарков сервисного слоя: поднимает приложение на H2 в памяти и заполняет базу
+ * детерминированными данными. Объёмы задаются параметрами JMH, например {@code -p items=100000}.
+ * Владелец и автор с id 1 используются как «текущий пользователь» в бенчмарках.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public abstract class ServiceBenchmarkSupport {
+    protected static final long CURRENT_USER_ID = 1L;
+    protected static final int PAGE_SIZE = 20;
+    private static final int BATCH_SIZE = 5000;
+    private static final String[] NAMES = {"Дрель", "Перфоратор", "Отвертка", "Пила", "Лестница", "Палатка",
+            "Велосипед", "Самокат", "Проектор", "Кофемашина"};
+    private static final String[] DESCRIPTIONS = {"простая", "мощная", "новая", "складная", "электрическая",
+            "аккумуляторная", "для дачи", "для ремонта"};
+    private static final Status[] STATUSES = {Status.WAITING, Status.APPROVED, Status.APPROVED, Status.REJECTED};
+
+    @Param("1000")
+    public int users;
+    @Param("10000")
+    public int items;
+    @Param("100000")
+    public int bookings;
+    @Param("10000")
+    public int comments;
+    @Param("1000")
+    public int requests;
+
+    protected ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = new SpringApplicationBuilder(ShareItApp.class)
+                .web(WebApplicationType.NONE)
+                .properties("spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                        "logging.level.root=WARN")
+                .run();
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        seed(jdbcTemplate);
+        seedExtra(jdbcTemplate);
+        context.getBean(ItemSearchIndex.class).warmUp();
+        initServices();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    protected abstract void initServices();
+
+    protected void seedExtra(JdbcTemplate jdbcTemplate) {
+    }
+
+    private void seed(JdbcTemplate jdbcTemplate) {
+        Random random = new Random(42);
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 1; i <= users; i++) {
+            rows.add(new Object[]{i, "User" + i, "user" + i + "@mail.ru"});
+        }
+        insert(jdbcTemplate, "insert into users (id, name, email) values (?, ?, ?)", rows);
+        for (int i = 1; i <= requests; i++) {
+            rows.add(new Object[]{i, "Нужна " + NAMES[random.nextInt(NAMES.length)].toLowerCase(),
+                    randomUser(random), Timestamp.valueOf(now.minusMinutes(random.nextInt(525_600)))});
+        }
+        insert(jdbcTemplate, "insert into requests (id, description, author_id, created) values (?, ?, ?, ?)", rows);
+        for (int i = 1; i <= items; i++) {
+            Long requestId = requests > 0 && i % 2 == 0 ? (long) 1 + random.nextInt(requests) : null;
+            rows.add(new Object[]{i, NAMES[random.nextInt(NAMES.length)] + " " + i,
+                    DESCRIPTIONS[random.nextInt(DESCRIPTIONS.length)] + " " + NAMES[random.nextInt(NAMES.length)]
+                            .toLowerCase(), random.nextInt(10) > 0, ownerOf(i), requestId});
+        }
+        insert(jdbcTemplate, "insert into items (id, name, description, available, user_id, request_id) " +
+                "values (?, ?, ?, ?, ?, ?)", rows);
+        for (int i = 1; i <= bookings; i++) {
+            LocalDateTime start = now.plusHours(random.nextInt(2 * 8760) - 8760);
+            LocalDateTime end = start.plusHours(1 + random.nextInt(72));
+            long itemId = randomItem(random);
+            Phase phase = Phase.at(start, end, now);
+            Status status = STATUSES[random.nextInt(STATUSES.length)];
+            if (status == Status.APPROVED && phase == Phase.PAST) {
+                status = Status.COMPLETED;
+            }
+            rows.add(new Object[]{i, itemId, ownerOf(itemId), randomUser(random), status.name(),
+                    Timestamp.valueOf(start), Timestamp.valueOf(end), phase.name()});
+        }
+        insert(jdbcTemplate, "insert into bookings (id, item_id, owner_id, booker_id, status, start_booking, " +
+                "end_booking, phase) values (?, ?, ?, ?, ?, ?, ?, ?)", rows);
+        for (int i = 1; i <= comments; i++) {
+            rows.add(new Object[]{i, "Комментарий " + i, randomItem(random), randomUser(random),
+                    Timestamp.valueOf(now.minusHours(random.nextInt(8760)))});
+        }
+        insert(jdbcTemplate, "insert into comments (id, text, item_id, author_id, created) values (?, ?, ?, ?, ?)",
+                rows);
+        jdbcTemplate.update("insert into item_summary (item_id, owner_id, comment_count, stale) " +
+                "select id, user_id, 0, true from items");
+    }
+
+    private long ownerOf(long itemId) {
+        return 1 + (itemId - 1) % users;
+    }
+
+    private long randomUser(Random random) {
+        return 1 + random.nextInt(users);
+    }
+
+    private long randomItem(Random random) {
+        return 1 + random.nextInt(items);
+    }
+
+    protected static void insert(JdbcTemplate jdbcTemplate, String sql, List<Object[]> rows) {
+        for (int from = 0; from < rows.size(); from += BATCH_SIZE) {
+            jdbcTemplate.batchUpdate(sql, rows.subList(from, Math.min(rows.size(), from + BATCH_SIZE)));
+        }
+        rows.clear();
+    }
+}
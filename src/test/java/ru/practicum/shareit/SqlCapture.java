@@ -0,0 +1,21 @@
+package ru.practicum.shareit;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Запоминает SQL всех запросов Hibernate. Подключается свойством {@link #PROPERTY} в {@code @SpringBootTest}.
+ */
+public class SqlCapture implements StatementInspector {
+    public static final String PROPERTY = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+            + "ru.practicum.shareit.SqlCapture";
+    public static final List<String> STATEMENTS = new ArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        STATEMENTS.add(sql);
+        return sql;
+    }
+}
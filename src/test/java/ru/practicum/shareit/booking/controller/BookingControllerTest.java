@@ -10,20 +10,28 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.request.async.WebAsyncTask;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingInputDto;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingCursor;
 import ru.practicum.shareit.booking.model.State;
 import ru.practicum.shareit.booking.model.StateEnumConverter;
 import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.service.BookingExporter;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.ErrorHandler;
+import ru.practicum.shareit.exception.ObjectNotFoundException;
+import ru.practicum.shareit.exception.ServiceUnavailableException;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 
+import javax.servlet.http.HttpServletResponse;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -33,8 +41,7 @@ import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @ExtendWith(MockitoExtension.class)
 class BookingControllerTest {
@@ -44,6 +51,8 @@ class BookingControllerTest {
     private BookingMapper bookingMapper;
     @Mock
     private StateEnumConverter converter;
+    @Mock
+    private BookingExporter bookingExporter;
     @InjectMocks
     private BookingController bookingController;
     private BookingDto bookingDto;
@@ -56,6 +65,7 @@ class BookingControllerTest {
     void beforeEach() {
         mvc = MockMvcBuilders
                 .standaloneSetup(bookingController)
+                .setControllerAdvice(ErrorHandler.class)
                 .build();
         bookingDto = BookingDto.builder()
                 .id(1L)
@@ -188,4 +198,78 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$.[0].start").isNotEmpty())
                 .andExpect(jsonPath("$.[0].end").isNotEmpty());
     }
-}
\ No newline at end of file
+
+    @Test
+    void getBookingsOfCurrentUserAfterCursor() throws Exception {
+        BookingCursor cursor = new BookingCursor(LocalDateTime.now().plusDays(3), 5L);
+        when(bookingService.getBookingsOfCurrentUser(any(), anyLong(), eq(cursor), eq(1)))
+                .thenReturn(List.of(bookingDto));
+        when(converter.convert(anyString()))
+                .thenReturn(State.ALL);
+
+        mvc.perform(get("/bookings")
+                        .param("after", cursor.encode())
+                        .param("size", "1")
+                        .header("X-Sharer-User-Id", 2))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size()").value(1))
+                .andExpect(header().string(BookingController.NEXT_CURSOR_HEADER,
+                        new BookingCursor(bookingDto.getStart(), bookingDto.getId()).encode()));
+
+        mvc.perform(get("/bookings/owner")
+                        .param("after", "not-a-cursor")
+                        .header("X-Sharer-User-Id", 2))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void exportBookingsOfOwner() throws Exception {
+        when(bookingExporter.exportBookingsOfOwner(eq(State.PAST), eq(1L), any()))
+                .thenAnswer(invocation -> {
+                    HttpServletResponse response = invocation.getArgument(2);
+                    response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+                    return new WebAsyncTask<Void>(60_000L, () -> {
+                        response.getOutputStream().write("{\"id\":1}\n{\"id\":2}\n".getBytes(StandardCharsets.UTF_8));
+                        return null;
+                    });
+                });
+        when(converter.convert("PAST"))
+                .thenReturn(State.PAST);
+
+        MvcResult result = mvc.perform(get("/bookings/owner/export")
+                        .param("state", "PAST")
+                        .header("X-Sharer-User-Id", 1))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string("{\"id\":1}\n{\"id\":2}\n"));
+    }
+
+    @Test
+    void exportBookingsOfUnknownUser() throws Exception {
+        when(bookingExporter.exportBookingsOfCurrentUser(eq(State.ALL), eq(99L), any()))
+                .thenThrow(new ObjectNotFoundException("Пользователь с id 99 не найден"));
+        when(converter.convert(anyString()))
+                .thenReturn(State.ALL);
+
+        mvc.perform(get("/bookings/export")
+                        .header("X-Sharer-User-Id", 99))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.error").value("Пользователь с id 99 не найден"));
+    }
+
+    @Test
+    void exportBookingsOverLimit() throws Exception {
+        when(bookingExporter.exportBookingsOfCurrentUser(eq(State.ALL), eq(2L), any()))
+                .thenThrow(new ServiceUnavailableException("Одновременно выполняется не больше 4 выгрузок"));
+        when(converter.convert(anyString()))
+                .thenReturn(State.ALL);
+
+        mvc.perform(get("/bookings/export")
+                        .header("X-Sharer-User-Id", 2))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.error").value("Одновременно выполняется не больше 4 выгрузок"));
+    }
+}
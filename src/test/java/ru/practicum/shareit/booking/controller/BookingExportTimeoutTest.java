@@ -0,0 +1,113 @@
+package ru.practicum.shareit.booking.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.mockito.ArgumentMatchers.any;
+
+/**
+ * Выгрузка через настоящий сервлет-контейнер: общее время ожидания асинхронных запросов Spring MVC
+ * (spring.mvc.async.request-timeout) заметно меньше времени выгрузки, но ответ не обрывается,
+ * потому что у выгрузки своё время ожидания. Данные создаются и удаляются в транзакциях.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.mvc.async.request-timeout=200ms")
+@AutoConfigureTestDatabase
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class BookingExportTimeoutTest {
+    private static final int BOOKINGS = 10;
+    private static final long CONVERT_DELAY_MILLIS = 50;
+
+    private final TestRestTemplate restTemplate;
+    private final UserService userService;
+    private final ItemService itemService;
+    private final BookingRepository bookingRepository;
+    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final TransactionTemplate transactionTemplate;
+    @SpyBean
+    private BookingMapper bookingMapper;
+    private final List<Long> bookingIds = new ArrayList<>();
+    private UserDto owner;
+    private UserDto booker;
+    private ItemDto item;
+
+    @BeforeEach
+    void beforeEach() {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        transactionTemplate.executeWithoutResult(status -> {
+            owner = userService.addUser(UserDto.builder().name("owner").email("export-owner@mail.ru").build());
+            booker = userService.addUser(UserDto.builder().name("booker").email("export-booker@mail.ru").build());
+            item = itemService.addItem(owner.getId(), ItemDto.builder().name("Дрель").description("Простая дрель")
+                    .available(true).build());
+            for (int i = 1; i <= BOOKINGS; i++) {
+                bookingIds.add(bookingRepository.save(Booking.builder()
+                        .item(itemRepository.getReferenceById(item.getId()))
+                        .booker(userRepository.getReferenceById(booker.getId()))
+                        .status(Status.APPROVED)
+                        .start(now.plusDays(i))
+                        .end(now.plusDays(i).plusHours(3))
+                        .build()).getId());
+            }
+        });
+        Mockito
+                .doAnswer(invocation -> {
+                    Thread.sleep(CONVERT_DELAY_MILLIS);
+                    return invocation.callRealMethod();
+                })
+                .when(bookingMapper).convertToDto(any());
+    }
+
+    @AfterEach
+    void afterEach() {
+        transactionTemplate.executeWithoutResult(status -> {
+            bookingRepository.deleteAllById(bookingIds);
+            itemService.removeItem(owner.getId(), item.getId());
+            userService.removeUser(booker.getId());
+            userService.removeUser(owner.getId());
+        });
+    }
+
+    @Test
+    void longExportIsNotCutOffByMvcAsyncTimeout() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-Sharer-User-Id", String.valueOf(owner.getId()));
+
+        ResponseEntity<String> response = restTemplate.exchange("/bookings/owner/export", HttpMethod.GET,
+                new HttpEntity<>(headers), String.class);
+
+        assertThat(response.getStatusCode(), equalTo(HttpStatus.OK));
+        assertThat("Выгрузка оборвалась", response.getBody().split("\n").length, equalTo(BOOKINGS));
+    }
+}
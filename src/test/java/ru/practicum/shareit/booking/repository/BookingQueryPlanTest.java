@@ -0,0 +1,66 @@
+package ru.practicum.shareit.booking.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.SqlCapture;
+import ru.practicum.shareit.booking.model.BookingCursor;
+import ru.practicum.shareit.booking.model.State;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.transaction.Transactional;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Проверяет по плану H2 (EXPLAIN), что запросы списков бронирований для каждого State идут по индексам
+ * из миграций, а не полным просмотром таблиц.
+ */
+@Transactional
+@SpringBootTest(properties = SqlCapture.PROPERTY)
+@AutoConfigureTestDatabase
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class BookingQueryPlanTest {
+    private final BookingService bookingService;
+    private final UserService userService;
+    private final JdbcTemplate jdbcTemplate;
+    private long userId;
+
+    @BeforeEach
+    void beforeEach() {
+        userId = userService.addUser(UserDto.builder().name("user").email("user@mail.ru").build()).getId();
+        SqlCapture.STATEMENTS.clear();
+    }
+
+    @Test
+    void bookingQueriesUseIndexes() {
+        BookingCursor cursor = new BookingCursor(LocalDateTime.now(), Long.MAX_VALUE);
+        for (State state : State.values()) {
+            bookingService.getBookingsOfCurrentUser(state, userId, 0, 10);
+            bookingService.getBookingsOfCurrentUser(state, userId, cursor, 10);
+            bookingService.getBookingsOfOwner(state, userId, 0, 10);
+            bookingService.getBookingsOfOwner(state, userId, cursor, 10);
+        }
+        List<String> bookingQueries = SqlCapture.STATEMENTS.stream()
+                .filter(sql -> sql.contains("bookings"))
+                .collect(Collectors.toList());
+        // ALL и PAST читают bookings и bookings_archive одним запросом, пустая страница сущности не загружает
+        assertThat("Запросы бронирований не перехвачены", bookingQueries, hasSize(4 * State.values().length));
+
+        for (String sql : bookingQueries) {
+            String plan = jdbcTemplate.queryForObject("explain " + sql, String.class);
+            assertThat("Запрос выполняется полным просмотром таблицы:\n" + plan, plan,
+                    not(containsString(".tableScan")));
+        }
+    }
+}
@@ -6,18 +6,27 @@ import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabas
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Phase;
+import ru.practicum.shareit.booking.model.State;
 import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
-@DataJpaTest
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
 @AutoConfigureTestDatabase
 class BookingRepositoryTest {
     @Autowired
@@ -62,7 +71,7 @@ class BookingRepositoryTest {
     }
 
     @Test
-    void findAllByOwnerId() {
+    void findSliceOfOwner() {
         createOwner();
         createBooker();
         createItem();
@@ -77,10 +86,13 @@ class BookingRepositoryTest {
         em.persist(booking);
         assertNotEquals(booking.getId(), 0);
 
-        List<Booking> bookings = repository.findAllByOwnerId(owner.getId(), PageRequest.of(0, 1)).stream()
+        assertEquals(owner.getId(), booking.getOwnerId(), "Владелец не скопирован из вещи при сохранении");
+
+        List<Booking> bookings = repository.findSliceOfOwner(owner.getId(), State.ALL, PageRequest.of(0, 1)).stream()
                 .collect(Collectors.toList());
         assertEquals(bookings.size(), 1);
         assertEquals(bookings.get(0).getId(), booking.getId());
+        assertTrue(repository.findSliceOfOwner(booker.getId(), State.ALL, PageRequest.of(0, 1)).isEmpty());
     }
 
     @Test
@@ -99,17 +111,21 @@ class BookingRepositoryTest {
         em.persist(booking);
         assertNotEquals(booking.getId(), 0);
 
-        List<Booking> bookings = repository.findAllByOwnerIdAndStatus(owner.getId(), Status.APPROVED, PageRequest.of(0, 1)).stream()
+        List<Booking> bookings = repository.findAllByOwnerIdAndStatus(owner.getId(), Status.APPROVED,
+                        PageRequest.of(0, 1))
+                .stream()
                 .collect(Collectors.toList());
         assertEquals(bookings.size(), 0);
         booking.setStatus(Status.APPROVED);
-        bookings = repository.findAllByOwnerIdAndStatus(owner.getId(), Status.APPROVED, PageRequest.of(0, 1)).stream()
+        bookings = repository.findAllByOwnerIdAndStatus(owner.getId(), Status.APPROVED,
+                        PageRequest.of(0, 1))
+                .stream()
                 .collect(Collectors.toList());
         assertEquals(bookings.size(), 1);
     }
 
     @Test
-    void findAllByOwnerIdAndStartAfter() {
+    void findAllByOwnerIdAndPhase() {
         createOwner();
         createBooker();
         createItem();
@@ -124,8 +140,110 @@ class BookingRepositoryTest {
         em.persist(booking);
         assertNotEquals(booking.getId(), 0);
 
-        List<Booking> bookings = repository.findAllByOwnerIdAndStartAfter(owner.getId(), LocalDateTime.now(), PageRequest.of(0, 1)).stream()
+        assertEquals(Phase.FUTURE, booking.getPhase(), "Фаза не вычислена при сохранении");
+
+        List<Booking> bookings = repository.findAllByOwnerIdAndPhase(owner.getId(), Phase.FUTURE,
+                        PageRequest.of(0, 1))
+                .stream()
                 .collect(Collectors.toList());
         assertEquals(bookings.size(), 1);
+        assertTrue(repository.findAllByOwnerIdAndPhase(owner.getId(), Phase.PAST, PageRequest.of(0, 1)).isEmpty());
+    }
+
+    @Test
+    void findLastAndNextByItemIdIn() {
+        createOwner();
+        createBooker();
+        createItem();
+        LocalDateTime now = LocalDateTime.now();
+        Booking oldest = persistBooking(now.minusDays(10), now.minusDays(9));
+        Booking last = persistBooking(now.minusDays(5), now.minusDays(4));
+        persistBooking(now.minusHours(1), now.plusHours(1));
+        Booking next = persistBooking(now.plusDays(1), now.plusDays(2));
+        persistBooking(now.plusDays(5), now.plusDays(6));
+
+        List<Booking> bookings = repository.findLastAndNextByItemIdIn(List.of(item.getId()), now);
+        assertEquals(2, bookings.size());
+        assertTrue(bookings.stream().anyMatch(found -> found.getId() == last.getId()));
+        assertTrue(bookings.stream().anyMatch(found -> found.getId() == next.getId()));
+        assertTrue(bookings.stream().noneMatch(found -> found.getId() == oldest.getId()));
+    }
+
+    @Test
+    void statementCountDoesNotDependOnPageSize() {
+        createOwner();
+        createBooker();
+        ItemRequest request = ItemRequest.builder()
+                .author(booker)
+                .description("Нужна вещь")
+                .created(LocalDateTime.now())
+                .build();
+        em.persist(request);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < 30; i++) {     // У каждого бронирования своя вещь и свой арендатор
+            User newBooker = em.persist(User.builder().name("booker" + i).email("booker" + i + "@mail.ru").build());
+            Item newItem = em.persist(Item.builder().name("Item" + i).description("Descr").userId(owner.getId())
+                    .available(true).request(request).build());
+            em.persist(Booking.builder().item(newItem).booker(newBooker).status(Status.APPROVED)
+                    .start(now.plusDays(i + 1)).end(now.plusDays(i + 2)).build());
+        }
+        em.flush();
+        Statistics statistics = em.getEntityManager().getEntityManagerFactory().unwrap(SessionFactory.class)
+                .getStatistics();
+        BookingMapper mapper = new BookingMapper();
+
+        for (int size : List.of(1, 5, 20)) {
+            em.clear();
+            statistics.clear();
+            repository.findSliceOfOwner(owner.getId(), State.ALL, PageRequest.of(0, size))
+                    .forEach(mapper::convertToDto);
+            repository.findAllByOwnerIdAndPhase(owner.getId(), Phase.FUTURE, PageRequest.of(0, size))
+                    .forEach(mapper::convertToDto);
+            // Для ALL — id страницы из bookings и архива и загрузка бронирований страницы (архив пуст), для FUTURE —
+            // один запрос; без count и без догрузки вещей и арендаторов
+            assertEquals(3, statistics.getPrepareStatementCount(), "Число запросов зависит от размера страницы");
+            assertEquals(0, statistics.getEntityFetchCount());
+        }
+    }
+
+    @Test
+    void findSliceOfOwnerLoadsOnlyRequestedPage() {
+        createOwner();
+        createBooker();
+        createItem();
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> live = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            live.add(persistBooking(now.plusDays(i + 1), now.plusDays(i + 2)).getId());
+        }
+        for (int i = 1; i <= 5; i++) {
+            em.persist(new ArchivedBooking(1000 + i, item, booker, owner.getId(), now.minusDays(10L * i),
+                    now.minusDays(10L * i).plusHours(3)));
+        }
+        em.flush();
+        em.clear();
+        Statistics statistics = em.getEntityManager().getEntityManagerFactory().unwrap(SessionFactory.class)
+                .getStatistics();
+        statistics.clear();
+
+        Slice<Booking> page = repository.findSliceOfOwner(owner.getId(), State.ALL, PageRequest.of(7, 4));
+        assertEquals(List.of(live.get(1), live.get(0), 1001L, 1002L),
+                page.stream().map(Booking::getId).collect(Collectors.toList()));
+        assertTrue(page.hasNext());
+        // Загружаются только записи страницы и одна лишняя для hasNext, а не offset + size из каждой таблицы
+        assertEquals(5, statistics.getEntityStatistics(Booking.class.getName()).getLoadCount()
+                + statistics.getEntityStatistics(ArchivedBooking.class.getName()).getLoadCount());
+    }
+
+    private Booking persistBooking(LocalDateTime start, LocalDateTime end) {
+        Booking newBooking = Booking.builder()
+                .item(item)
+                .booker(booker)
+                .status(Status.APPROVED)
+                .start(start)
+                .end(end)
+                .build();
+        em.persist(newBooking);
+        return newBooking;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,139 @@
+package ru.practicum.shareit.booking.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.*;
+import ru.practicum.shareit.booking.repository.BookingArchiveRepository;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.transaction.Transactional;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@Transactional
+@SpringBootTest
+@AutoConfigureTestDatabase
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class BookingArchiverTest {
+    private final BookingService bookingService;
+    private final UserService userService;
+    private final ItemService itemService;
+    private final BookingRepository bookingRepository;
+    private final BookingArchiveRepository bookingArchiveRepository;
+    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    // Точность времени в базе — микросекунды, курсор строится по значениям из базы
+    private final LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+    private UserDto owner;
+    private UserDto booker;
+    private ItemDto item;
+    private BookingArchiver archiver;
+
+    @BeforeEach
+    void beforeEach() {
+        owner = userService.addUser(UserDto.builder().name("owner").email("owner@mail.ru").build());
+        booker = userService.addUser(UserDto.builder().name("booker").email("booker@mail.ru").build());
+        item = itemService.addItem(owner.getId(), ItemDto.builder()
+                .name("Item1").description("Description for item1").available(true).build());
+        archiver = new BookingArchiver(bookingRepository, bookingArchiveRepository, transactionManager,
+                meterRegistry, Duration.ofDays(5), () -> now);
+    }
+
+    @Test
+    void archiveKeepsRecentAndLastBookings() {
+        long other = userService.addUser(UserDto.builder().name("other").email("other@mail.ru").build()).getId();
+        long first = addPastBooking(booker.getId(), 400, Status.COMPLETED);
+        long second = addPastBooking(booker.getId(), 300, Status.COMPLETED);
+        long rejected = addPastBooking(booker.getId(), 500, Status.REJECTED);
+        long last = addPastBooking(other, 10, Status.COMPLETED);
+
+        archiver.archive();
+        assertThat(jdbcTemplate.queryForList("select id from bookings_archive", Long.class),
+                containsInAnyOrder(first, second));
+        assertThat("Последнее бронирование вещи перенесено в архив",
+                jdbcTemplate.queryForList("select id from bookings", Long.class), containsInAnyOrder(rejected, last));
+        assertThat(meterRegistry.get("bookings.archived").counter().count(), equalTo(2.0));
+
+        archiver.archive();
+        assertThat(bookingArchiveRepository.count(), equalTo(2L));
+    }
+
+    @Test
+    void archivedBookingsAreReadTransparently() {
+        long first = addPastBooking(booker.getId(), 400, Status.COMPLETED);
+        long second = addPastBooking(booker.getId(), 300, Status.COMPLETED);
+        long rejected = addPastBooking(booker.getId(), 500, Status.REJECTED);
+        long recent = addPastBooking(booker.getId(), 2, Status.COMPLETED);
+        archiver.archive();
+        assertThat(bookingArchiveRepository.count(), equalTo(2L));
+
+        assertThat(ids(bookingService.getBookingsOfCurrentUser(State.PAST, booker.getId(), 0, 10)),
+                contains(recent, second, first, rejected));
+        assertThat(ids(bookingService.getBookingsOfOwner(State.ALL, owner.getId(), 2, 2)), contains(first, rejected));
+        BookingCursor cursor = new BookingCursor(now.minusDays(300), second);
+        assertThat(ids(bookingService.getBookingsOfCurrentUser(State.PAST, booker.getId(), cursor, 1)),
+                contains(first));
+        assertThat(bookingService.getBookingsOfCurrentUser(State.REJECTED, booker.getId(), 0, 10), hasSize(1));
+
+        Booking archived = bookingService.getBookingById(first, booker.getId(), AccessLevel.OWNER_AND_BOOKER);
+        assertThat(archived.getStatus(), equalTo(Status.COMPLETED));
+        assertThat(archived.getItem().getId(), equalTo(item.getId()));
+    }
+
+    @Test
+    void commentAllowedByArchivedBooking() {
+        long other = userService.addUser(UserDto.builder().name("other").email("other@mail.ru").build()).getId();
+        addPastBooking(booker.getId(), 300, Status.COMPLETED);
+        addPastBooking(other, 10, Status.COMPLETED);
+        archiver.archive();
+        assertThat(bookingArchiveRepository.count(), equalTo(1L));
+
+        CommentDto comment = itemService.addComment(booker.getId(), item.getId(),
+                CommentDto.builder().text("Всё понравилось").build());
+        assertThat(comment.getText(), equalTo("Всё понравилось"));
+    }
+
+    private long addPastBooking(long bookerId, int daysAgo, Status status) {
+        User bookerRef = userRepository.getReferenceById(bookerId);
+        Item itemRef = itemRepository.getReferenceById(item.getId());
+        Booking booking = Booking.builder()
+                .item(itemRef)
+                .booker(bookerRef)
+                .status(status)
+                .start(now.minusDays(daysAgo))
+                .end(now.minusDays(daysAgo).plusHours(3))
+                .build();
+        return bookingRepository.save(booking).getId();
+    }
+
+    private static List<Long> ids(List<BookingDto> bookings) {
+        return bookings.stream().map(BookingDto::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,101 @@
+package ru.practicum.shareit.booking.service;
+
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import ru.practicum.shareit.booking.repository.BookingArchiveRepository;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.LocalDateTime;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class BookingAvailabilityIndexBenchmark {
+    private static final LocalDateTime BASE = LocalDateTime.of(2030, 1, 1, 0, 0);
+    private static final int INTERVALS = 1_000_000;
+
+    @Param("10000")
+    private int items;
+
+    private final BookingRepository bookingRepository = Mockito.mock(BookingRepository.class);
+    private final BookingArchiveRepository bookingArchiveRepository = Mockito.mock(BookingArchiveRepository.class);
+    private long[] itemIds;
+    private LocalDateTime[] starts;
+    private LocalDateTime[] ends;
+    private BookingAvailabilityIndex index;
+
+    @Setup(Level.Trial)
+    public void generateIntervals() {
+        Random random = new Random(42);
+        itemIds = new long[INTERVALS];
+        starts = new LocalDateTime[INTERVALS];
+        ends = new LocalDateTime[INTERVALS];
+        for (int i = 0; i < INTERVALS; i++) {
+            itemIds[i] = 1 + random.nextInt(items);
+            starts[i] = BASE.plusHours(random.nextInt(24 * 365 * 5));
+            ends[i] = starts[i].plusHours(1 + random.nextInt(72));
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void createIndex() {
+        index = new BookingAvailabilityIndex(bookingRepository, bookingArchiveRepository);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @OperationsPerInvocation(INTERVALS)
+    public int bookRandomIntervals() {
+        int booked = 0;
+        for (int i = 0; i < INTERVALS; i++) {
+            long itemId = itemIds[i];
+            int position = i;
+            boolean added = index.withItemLock(itemId, () -> {
+                if (!index.isAvailable(itemId, starts[position], ends[position])) {
+                    return false;
+                }
+                index.add(itemId, starts[position], ends[position]);
+                return true;
+            });
+            if (added) {
+                booked++;
+            }
+        }
+        return booked;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public void checkAvailability(FilledIndex filled, Blackhole blackhole) {
+        int i = filled.next();
+        blackhole.consume(filled.index.isAvailable(itemIds[i], starts[i], ends[i]));
+    }
+
+    @State(Scope.Thread)
+    public static class FilledIndex {
+        private BookingAvailabilityIndex index;
+        private int position;
+
+        @Setup(Level.Trial)
+        public void fill(BookingAvailabilityIndexBenchmark benchmark) {
+            index = new BookingAvailabilityIndex(benchmark.bookingRepository, benchmark.bookingArchiveRepository);
+            for (int i = 0; i < INTERVALS; i++) {
+                long itemId = benchmark.itemIds[i];
+                if (index.isAvailable(itemId, benchmark.starts[i], benchmark.ends[i])) {
+                    index.add(itemId, benchmark.starts[i], benchmark.ends[i]);
+                }
+            }
+        }
+
+        int next() {
+            position = (position + 1) % INTERVALS;
+            return position;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingArchiveRepository;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+
+@ExtendWith(MockitoExtension.class)
+class BookingAvailabilityIndexTest {
+    private static final LocalDateTime BASE = LocalDateTime.of(2030, 1, 1, 0, 0);
+    @Mock
+    private BookingRepository mockBookingRepository;
+    @Mock
+    private BookingArchiveRepository mockBookingArchiveRepository;
+    private BookingAvailabilityIndex index;
+
+    @BeforeEach
+    void beforeEach() {
+        index = new BookingAvailabilityIndex(mockBookingRepository, mockBookingArchiveRepository);
+    }
+
+    @Test
+    void shouldDetectOverlapsWithHalfOpenIntervals() {
+        index.add(1L, hour(10), hour(12));
+
+        assertFalse(index.isAvailable(1L, hour(11), hour(13)), "пересечение справа не найдено");
+        assertFalse(index.isAvailable(1L, hour(9), hour(11)), "пересечение слева не найдено");
+        assertFalse(index.isAvailable(1L, hour(8), hour(14)), "вложенный интервал не найден");
+        assertFalse(index.isAvailable(1L, hour(10), hour(11)), "совпадение начала не найдено");
+        assertTrue(index.isAvailable(1L, hour(12), hour(14)), "смежный интервал считается занятым");
+        assertTrue(index.isAvailable(1L, hour(8), hour(10)), "смежный интервал считается занятым");
+        assertTrue(index.isAvailable(2L, hour(10), hour(12)), "занятость другой вещи");
+    }
+
+    @Test
+    void shouldReleaseIntervalOnRemove() {
+        index.add(1L, hour(10), hour(12));
+        index.add(1L, hour(11), hour(15));
+        index.remove(1L, hour(10), hour(12));
+
+        assertTrue(index.isAvailable(1L, hour(9), hour(11)), "интервал не освобождён");
+        assertFalse(index.isAvailable(1L, hour(14), hour(16)), "освобождён чужой интервал");
+        index.remove(1L, hour(11), hour(15));
+        assertTrue(index.isAvailable(1L, hour(0), hour(24)), "интервал не освобождён");
+    }
+
+    @Test
+    void shouldWarmUpFromRepositoryOnce() {
+        Booking booking = Booking.builder()
+                .start(hour(10))
+                .end(hour(12))
+                .build();
+        Mockito
+                .when(mockBookingRepository.findAllByItemIdAndStatusInAndEndAfter(anyLong(), anyList(), any()))
+                .thenReturn(List.of(booking));
+
+        assertFalse(index.isAvailable(1L, hour(11), hour(13)), "данные из БД не загружены");
+        assertTrue(index.isAvailable(1L, hour(12), hour(13)), "данные из БД загружены неверно");
+        Mockito.verify(mockBookingRepository, Mockito.times(1))
+                .findAllByItemIdAndStatusInAndEndAfter(anyLong(), anyList(), any());
+    }
+
+    @Test
+    void shouldReadPastSlotsFromRepository() {
+        LocalDateTime from = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS).minusHours(10);
+        Booking completed = Booking.builder()
+                .start(from.plusHours(2))
+                .end(from.plusHours(4))
+                .build();
+        ArchivedBooking archived = new ArchivedBooking(2L, null, null, 1L, from.plusHours(5), from.plusHours(6));
+        Mockito
+                .when(mockBookingRepository.findAllByItemIdAndStatusInAndStartBeforeAndEndAfter(Mockito.eq(1L),
+                        Mockito.eq(BookingAvailabilityIndex.PAST_BLOCKING_STATUSES), any(), Mockito.eq(from)))
+                .thenReturn(List.of(completed));
+        Mockito
+                .when(mockBookingArchiveRepository.findAllByItemIdAndStartBeforeAndEndAfter(Mockito.eq(1L), any(),
+                        Mockito.eq(from)))
+                .thenReturn(List.of(archived));
+
+        BitSet busy = index.busySlots(1L, from, Duration.ofHours(1), 8);
+        assertEquals(BitSet.valueOf(new long[]{0b101100}), busy, "прошедшие бронирования не учтены");
+    }
+
+    @Test
+    void shouldPruneEndedIntervals() {
+        index.add(1L, hour(10), hour(12));
+        index.add(1L, hour(11), hour(15));
+        index.add(2L, hour(1), hour(2));
+
+        index.prune(hour(13));
+        assertEquals(1, index.size(), "вещь без занятых интервалов не выгружена");
+        assertTrue(index.isAvailable(1L, hour(9), hour(11)), "закончившийся интервал не удалён");
+        assertFalse(index.isAvailable(1L, hour(14), hour(16)), "удалён незакончившийся интервал");
+        assertTrue(index.isAvailable(1L, hour(15), hour(16)), "интервал продлён при очистке");
+    }
+
+    @Test
+    void shouldAllowOnlyOneOfConcurrentBookings() throws InterruptedException {
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger booked = new AtomicInteger();
+        for (int i = 0; i < threads; i++) {
+            executor.submit(() -> {
+                start.await();
+                return index.withItemLock(1L, () -> {
+                    if (index.isAvailable(1L, hour(10), hour(12))) {
+                        index.add(1L, hour(10), hour(12));
+                        booked.incrementAndGet();
+                    }
+                    return null;
+                });
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(1, booked.get(), "одни и те же даты забронированы несколько раз");
+    }
+
+    private static LocalDateTime hour(int hour) {
+        return BASE.plusHours(hour);
+    }
+}
@@ -0,0 +1,151 @@
+package ru.practicum.shareit.booking.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingInputDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.State;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingArchiveRepository;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exception.ObjectNotFoundException;
+import ru.practicum.shareit.exception.ServiceUnavailableException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.transaction.Transactional;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// fetch-size=2: контекст персистентности очищается посреди выгрузки; max-concurrent=1: вторая выгрузка отклоняется
+@Transactional
+@SpringBootTest(properties = {"shareit.booking-export.fetch-size=2", "shareit.booking-export.max-concurrent=1"})
+@AutoConfigureTestDatabase
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class BookingExporterTest {
+    private final BookingExporter bookingExporter;
+    private final BookingService bookingService;
+    private final UserService userService;
+    private final ItemService itemService;
+    private final BookingRepository bookingRepository;
+    private final BookingArchiveRepository bookingArchiveRepository;
+    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectMapper objectMapper;
+    private final LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+    private UserDto owner;
+    private UserDto booker;
+    private ItemDto item;
+
+    @BeforeEach
+    void beforeEach() {
+        owner = userService.addUser(UserDto.builder().name("owner").email("owner@mail.ru").build());
+        booker = userService.addUser(UserDto.builder().name("booker").email("booker@mail.ru").build());
+        item = itemService.addItem(owner.getId(), ItemDto.builder()
+                .name("Item1").description("Description for item1").available(true).build());
+    }
+
+    @Test
+    void exportMergesArchiveInOrder() throws Exception {
+        long first = addPastBooking(400, Status.COMPLETED);
+        long second = addPastBooking(300, Status.COMPLETED);
+        long rejected = addPastBooking(200, Status.REJECTED);
+        long recent = addPastBooking(2, Status.COMPLETED);
+        long future = bookingService.addBooking(booker.getId(), new BookingInputDto(0, item.getId(),
+                now.plusDays(1), now.plusDays(2))).getId();
+        new BookingArchiver(bookingRepository, bookingArchiveRepository, transactionManager,
+                new SimpleMeterRegistry(), Duration.ofDays(5), () -> now).archive();
+        assertThat(bookingArchiveRepository.count(), equalTo(2L));
+
+        List<BookingDto> bookings = export(response -> bookingExporter.exportBookingsOfOwner(State.ALL, owner.getId(),
+                response));
+        assertThat(ids(bookings), contains(future, recent, rejected, second, first));
+        assertThat(bookings.get(4).getStatus(), equalTo(Status.COMPLETED));
+        assertThat(bookings.get(4).getItem().getName(), equalTo(item.getName()));
+        assertThat(bookings.get(4).getBooker().getEmail(), equalTo(booker.getEmail()));
+        assertThat(bookings.get(0).getStart(), equalTo(now.plusDays(1)));
+
+        assertThat(ids(export(response -> bookingExporter.exportBookingsOfCurrentUser(State.PAST, booker.getId(),
+                response))), contains(recent, rejected, second, first));
+        assertThat(ids(export(response -> bookingExporter.exportBookingsOfCurrentUser(State.REJECTED,
+                booker.getId(), response))), contains(rejected));
+        assertThat(export(response -> bookingExporter.exportBookingsOfOwner(State.ALL, booker.getId(), response)),
+                empty());
+    }
+
+    @Test
+    void exportOfUnknownUserFailsBeforeStreaming() {
+        assertThrows(ObjectNotFoundException.class,
+                () -> bookingExporter.exportBookingsOfCurrentUser(State.ALL, 999_999L,
+                        new MockHttpServletResponse()));
+    }
+
+    @Test
+    void exportOverLimitIsRejectedUntilRunningOneFinishes() throws Exception {
+        long booking = addPastBooking(2, Status.COMPLETED);
+        MockHttpServletResponse running = new MockHttpServletResponse();
+        WebAsyncTask<Void> task = bookingExporter.exportBookingsOfOwner(State.ALL, owner.getId(), running);
+        assertThat(task.getTimeout(), equalTo(Duration.ofMinutes(30).toMillis()));
+        assertThrows(ServiceUnavailableException.class,
+                () -> bookingExporter.exportBookingsOfCurrentUser(State.ALL, booker.getId(),
+                        new MockHttpServletResponse()));
+
+        task.getCallable().call();
+        assertThat(running.getContentType(), equalTo(MediaType.APPLICATION_NDJSON_VALUE));
+        assertThat(ids(export(response -> bookingExporter.exportBookingsOfCurrentUser(State.ALL, booker.getId(),
+                response))), contains(booking));
+    }
+
+    private long addPastBooking(int daysAgo, Status status) {
+        Booking booking = Booking.builder()
+                .item(itemRepository.getReferenceById(item.getId()))
+                .booker(userRepository.getReferenceById(booker.getId()))
+                .status(status)
+                .start(now.minusDays(daysAgo))
+                .end(now.minusDays(daysAgo).plusHours(3))
+                .build();
+        return bookingRepository.save(booking).getId();
+    }
+
+    private List<BookingDto> export(Function<MockHttpServletResponse, WebAsyncTask<Void>> start) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        start.apply(response).getCallable().call();
+        List<BookingDto> bookings = new ArrayList<>();
+        for (String line : response.getContentAsString(StandardCharsets.UTF_8).split("\n")) {
+            if (!line.isEmpty()) {
+                bookings.add(objectMapper.readValue(line, BookingDto.class));
+            }
+        }
+        return bookings;
+    }
+
+    private static List<Long> ids(List<BookingDto> bookings) {
+        return bookings.stream().map(BookingDto::getId).collect(Collectors.toList());
+    }
+}
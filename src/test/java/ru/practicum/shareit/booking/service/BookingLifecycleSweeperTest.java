@@ -0,0 +1,114 @@
+package ru.practicum.shareit.booking.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingInputDto;
+import ru.practicum.shareit.booking.model.AccessLevel;
+import ru.practicum.shareit.booking.model.State;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.transaction.Transactional;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@Transactional
+@SpringBootTest
+@AutoConfigureTestDatabase
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class BookingLifecycleSweeperTest {
+    private final BookingService bookingService;
+    private final UserService userService;
+    private final ItemService itemService;
+    private final BookingRepository bookingRepository;
+    private final BookingAvailabilityIndex availabilityIndex;
+    private final PlatformTransactionManager transactionManager;
+    private final JdbcTemplate jdbcTemplate;
+    private final AtomicReference<LocalDateTime> clock = new AtomicReference<>();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private BookingLifecycleSweeper sweeper;
+    private LocalDateTime now;
+
+    @BeforeEach
+    void beforeEach() {
+        now = LocalDateTime.now();
+        clock.set(now);
+        sweeper = new BookingLifecycleSweeper(bookingRepository, availabilityIndex, transactionManager,
+                meterRegistry, clock::get);
+    }
+
+    @Test
+    void sweepMovesBookingsThroughPhases() {
+        UserDto owner = userService.addUser(UserDto.builder().name("owner").email("owner@mail.ru").build());
+        UserDto booker = userService.addUser(UserDto.builder().name("booker").email("booker@mail.ru").build());
+        ItemDto item = itemService.addItem(owner.getId(), ItemDto.builder()
+                .name("Item1").description("Description for item1").available(true).build());
+        BookingDto approved = addBooking(booker.getId(), item.getId(), now.plusHours(1), now.plusHours(2));
+        bookingService.approveOrRejectBooking(owner.getId(), approved.getId(), true, AccessLevel.OWNER);
+        BookingDto waiting = addBooking(booker.getId(), item.getId(), now.plusHours(3), now.plusHours(5));
+
+        clock.set(now.plusMinutes(90));
+        sweeper.sweep();
+        assertThat(phasesAndStatuses(), equalTo(Map.of(approved.getId(), "CURRENT APPROVED",
+                waiting.getId(), "FUTURE WAITING")));
+        assertThat(ids(bookingService.getBookingsOfCurrentUser(State.CURRENT, booker.getId(), 0, 10)),
+                contains(approved.getId()));
+
+        clock.set(now.plusHours(6));
+        sweeper.sweep();
+        assertThat("Бронирование не перешло в PAST, минуя CURRENT", phasesAndStatuses(),
+                equalTo(Map.of(approved.getId(), "PAST COMPLETED", waiting.getId(), "PAST WAITING")));
+        assertThat(ids(bookingService.getBookingsOfOwner(State.PAST, owner.getId(), 0, 10)),
+                contains(waiting.getId(), approved.getId()));
+        assertThat(ids(bookingService.getBookingsOfOwner(State.CURRENT, owner.getId(), 0, 10)), empty());
+    }
+
+    @Test
+    void lagIsMeasuredFromLastSweep() {
+        assertThat(meterRegistry.get("bookings.sweeper.lag").timeGauge().value(TimeUnit.SECONDS), equalTo(0.0));
+        sweeper.sweep();
+        clock.set(now.plusSeconds(42));
+        assertThat(meterRegistry.get("bookings.sweeper.lag").timeGauge().value(TimeUnit.SECONDS), equalTo(42.0));
+    }
+
+    private BookingDto addBooking(long bookerId, long itemId, LocalDateTime start, LocalDateTime end) {
+        return bookingService.addBooking(bookerId, BookingInputDto.builder()
+                .itemId(itemId)
+                .start(start)
+                .end(end)
+                .build());
+    }
+
+    // Читаем напрямую из таблицы: планировщик меняет строки запросами update в обход контекста персистентности
+    private Map<Long, String> phasesAndStatuses() {
+        Map<Long, String> result = new HashMap<>();
+        jdbcTemplate.query("select id, phase, status from bookings", rs -> {
+            result.put(rs.getLong("id"), rs.getString("phase") + " " + rs.getString("status"));
+        });
+        return result;
+    }
+
+    private static List<Long> ids(List<BookingDto> bookings) {
+        return bookings.stream().map(BookingDto::getId).collect(Collectors.toList());
+    }
+}
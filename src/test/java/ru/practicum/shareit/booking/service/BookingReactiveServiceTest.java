@@ -0,0 +1,143 @@
+package ru.practicum.shareit.booking.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Flux;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingInputDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.State;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingArchiveRepository;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exception.ObjectNotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemReactiveService;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Потоковые выборки читают БД через R2DBC, отдельным от JPA соединением, поэтому видят только
+ * закоммиченные данные: они создаются и удаляются в транзакциях, без общей транзакции теста.
+ */
+@SpringBootTest
+@AutoConfigureTestDatabase
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class BookingReactiveServiceTest {
+    private final BookingReactiveService bookingReactiveService;
+    private final ItemReactiveService itemReactiveService;
+    private final BookingService bookingService;
+    private final UserService userService;
+    private final ItemService itemService;
+    private final BookingRepository bookingRepository;
+    private final BookingArchiveRepository bookingArchiveRepository;
+    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final TransactionTemplate transactionTemplate;
+    private final LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+    private UserDto owner;
+    private UserDto booker;
+    private ItemDto item;
+
+    @BeforeEach
+    void beforeEach() {
+        transactionTemplate.executeWithoutResult(status -> {
+            owner = userService.addUser(UserDto.builder().name("owner").email("reactive-owner@mail.ru").build());
+            booker = userService.addUser(UserDto.builder().name("booker").email("reactive-booker@mail.ru").build());
+            item = itemService.addItem(owner.getId(), ItemDto.builder()
+                    .name("Item1").description("Description for item1").available(true).build());
+        });
+    }
+
+    @AfterEach
+    void afterEach() {
+        transactionTemplate.executeWithoutResult(status -> {
+            itemService.removeItem(owner.getId(), item.getId());
+            userService.removeUser(owner.getId());
+            userService.removeUser(booker.getId());
+        });
+    }
+
+    @Test
+    void bookingsOfOwnerIncludeArchiveInOrder() {
+        long first = addPastBooking(400);
+        long second = addPastBooking(300);
+        long recent = addPastBooking(2);
+        long future = bookingService.addBooking(booker.getId(), new BookingInputDto(0, item.getId(),
+                now.plusDays(1), now.plusDays(2))).getId();
+        new BookingArchiver(bookingRepository, bookingArchiveRepository, transactionManager,
+                new SimpleMeterRegistry(), Duration.ofDays(5), () -> now).archive();
+        assertThat(bookingArchiveRepository.count(), equalTo(2L));
+
+        List<BookingDto> bookings = collect(bookingReactiveService.getBookingsOfOwner(State.ALL, owner.getId(),
+                0, null));
+        assertThat(ids(bookings), contains(future, recent, second, first));
+        assertThat(bookings.get(3).getStatus(), equalTo(Status.COMPLETED));
+        assertThat(bookings.get(3).getItem().getName(), equalTo(item.getName()));
+        assertThat(bookings.get(3).getBooker().getEmail(), equalTo(booker.getEmail()));
+
+        assertThat(ids(collect(bookingReactiveService.getBookingsOfCurrentUser(State.PAST, booker.getId(), 1, 1))),
+                contains(second));
+        assertThat(ids(collect(bookingReactiveService.getBookingsOfCurrentUser(State.WAITING, booker.getId(), 0,
+                null))), contains(future));
+        assertThat(ids(collect(bookingReactiveService.getBookingsOfOwner(State.FUTURE, owner.getId(), 0, 10))),
+                contains(future));
+        assertThat(collect(bookingReactiveService.getBookingsOfOwner(State.CURRENT, owner.getId(), 0, 10)), empty());
+    }
+
+    @Test
+    void itemsOfOwnerAreStreamed() {
+        List<ItemDto> items = collect(itemReactiveService.getAllItems(owner.getId(), 0, null));
+        assertThat(items, hasSize(1));
+        assertThat(items.get(0).getId(), equalTo(item.getId()));
+        assertThat(items.get(0).getAvailable(), equalTo(true));
+        assertThat(collect(itemReactiveService.getAllItems(booker.getId(), 0, null)), empty());
+    }
+
+    @Test
+    void unknownUserIsRejectedBeforeQuery() {
+        assertThrows(ObjectNotFoundException.class,
+                () -> bookingReactiveService.getBookingsOfOwner(State.ALL, 999_999L, 0, null));
+        assertThrows(ObjectNotFoundException.class, () -> itemReactiveService.getAllItems(999_999L, 0, null));
+    }
+
+    private long addPastBooking(int daysAgo) {
+        return transactionTemplate.execute(status -> bookingRepository.save(Booking.builder()
+                .item(itemRepository.getReferenceById(item.getId()))
+                .booker(userRepository.getReferenceById(booker.getId()))
+                .status(Status.COMPLETED)
+                .start(now.minusDays(daysAgo))
+                .end(now.minusDays(daysAgo).plusHours(3))
+                .build()).getId());
+    }
+
+    private static <T> List<T> collect(Flux<T> flux) {
+        return flux.collectList().block();
+    }
+
+    private static List<Long> ids(List<BookingDto> bookings) {
+        return bookings.stream().map(BookingDto::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,28 @@
+package ru.practicum.shareit.booking.service;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.ServiceBenchmarkSupport;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BookingServiceBenchmark extends ServiceBenchmarkSupport {
+    @Param({"ALL", "CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED"})
+    public State state;
+
+    private BookingService bookingService;
+
+    @Override
+    protected void initServices() {
+        bookingService = context.getBean(BookingService.class);
+    }
+
+    @Benchmark
+    public List<BookingDto> getBookingsOfOwner() {
+        return bookingService.getBookingsOfOwner(state, CURRENT_USER_ID, 0, PAGE_SIZE);
+    }
+}
@@ -9,8 +9,10 @@ import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingInputDto;
 import ru.practicum.shareit.booking.model.AccessLevel;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingCursor;
 import ru.practicum.shareit.booking.model.State;
 import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.exception.ObjectNotAvailableException;
 import ru.practicum.shareit.exception.ObjectNotFoundException;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.service.ItemService;
@@ -20,7 +22,10 @@ import ru.practicum.shareit.user.service.UserService;
 import javax.transaction.Transactional;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
@@ -65,6 +70,46 @@ class BookingServiceImplTest {
         assertThat("Бронирование сохраняется неверно", bookingDto.getStatus(), equalTo(Status.WAITING));
     }
 
+    @Test
+    void addBookingShouldRejectOverlappingDates() {
+        UserDto ownerDto = createUserDto("NameForUser1", "user@mail.ru");
+        UserDto bookerDto = createUserDto("booker", "booker@mail.ru");
+        ItemDto itemDto = createItemDto(ownerDto.getId(), "Item1", "Description for item1", true);
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        BookingDto bookingDto = bookingService.addBooking(bookerDto.getId(), BookingInputDto.builder()
+                .itemId(itemDto.getId())
+                .start(start)
+                .end(start.plusDays(2))
+                .build());
+        BookingInputDto overlapping = BookingInputDto.builder()
+                .itemId(itemDto.getId())
+                .start(start.plusDays(1))
+                .end(start.plusDays(3))
+                .build();
+
+        ObjectNotAvailableException e = assertThrows(ObjectNotAvailableException.class,
+                () -> bookingService.addBooking(bookerDto.getId(), overlapping));
+        assertThat("Нет ошибки при пересечении бронирований", e.getMessage(),
+                equalTo(String.format("Вещь с id %d уже забронирована на выбранные даты.", itemDto.getId())));
+
+        BookingDto adjacent = bookingService.addBooking(bookerDto.getId(), BookingInputDto.builder()
+                .itemId(itemDto.getId())
+                .start(start.plusDays(2))
+                .end(start.plusDays(3))
+                .build());
+        assertThat("Смежное бронирование не сохранено", adjacent.getId(), notNullValue());
+
+        bookingService.approveOrRejectBooking(ownerDto.getId(), bookingDto.getId(), false, AccessLevel.OWNER);
+        BookingDto afterReject = bookingService.addBooking(bookerDto.getId(), BookingInputDto.builder()
+                .itemId(itemDto.getId())
+                .start(start)
+                .end(start.plusDays(1))
+                .build());
+        assertThat("Даты отклонённого бронирования не освободились", afterReject.getId(), notNullValue());
+        assertThrows(ObjectNotAvailableException.class, () -> bookingService.approveOrRejectBooking(
+                ownerDto.getId(), bookingDto.getId(), true, AccessLevel.OWNER));
+    }
+
     @Test
     void approveBooking() {
         UserDto ownerDto = createUserDto("NameForUser1", "user@mail.ru");
@@ -210,6 +255,41 @@ class BookingServiceImplTest {
                 equalTo(1));
     }
 
+    @Test
+    void getBookingsAfterCursor() {
+        UserDto ownerDto = createUserDto("NameForUser1", "user@mail.ru");
+        UserDto bookerDto = createUserDto("booker", "booker@mail.ru");
+        ItemDto itemDto = createItemDto(ownerDto.getId(),"Item1", "Description for item1", true);
+        // В базе время хранится с точностью до микросекунд, а курсор строится по бронированиям из этой же транзакции
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        List<Long> ids = new ArrayList<>();
+        for (int i = 3; i >= 1; i--) {
+            ids.add(bookingService.addBooking(bookerDto.getId(), BookingInputDto.builder()
+                    .itemId(itemDto.getId())
+                    .start(now.plusDays(2 * i))
+                    .end(now.plusDays(2 * i + 1))
+                    .build()).getId());
+        }
+
+        List<BookingDto> firstPage = bookingService.getBookingsOfCurrentUser(State.ALL, bookerDto.getId(),
+                (BookingCursor) null, 2);
+        assertThat("Первая страница по курсору возвращается некорректно",
+                firstPage.stream().map(BookingDto::getId).collect(Collectors.toList()),
+                contains(ids.get(0), ids.get(1)));
+        BookingDto last = firstPage.get(1);
+        List<BookingDto> nextPage = bookingService.getBookingsOfCurrentUser(State.FUTURE, bookerDto.getId(),
+                new BookingCursor(last.getStart(), last.getId()), 2);
+        assertThat("Следующая страница по курсору возвращается некорректно",
+                nextPage.stream().map(BookingDto::getId).collect(Collectors.toList()), contains(ids.get(2)));
+
+        nextPage = bookingService.getBookingsOfOwner(State.WAITING, ownerDto.getId(),
+                new BookingCursor(last.getStart(), last.getId()), 2);
+        assertThat("Следующая страница владельца по курсору возвращается некорректно",
+                nextPage.stream().map(BookingDto::getId).collect(Collectors.toList()), contains(ids.get(2)));
+        nextPage = bookingService.getBookingsOfOwner(State.PAST, ownerDto.getId(), (BookingCursor) null, 2);
+        assertThat("Список бронирования владельца по курсору возвращается некорректно", nextPage, empty());
+    }
+
     UserDto createUserDto(String name, String email) {
         return userService.addUser(UserDto.builder()
                 .email(email)
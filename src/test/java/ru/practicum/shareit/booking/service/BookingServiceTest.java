@@ -11,6 +11,7 @@ import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.AccessLevel;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingArchiveRepository;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exception.AccessException;
 import ru.practicum.shareit.exception.InvalidDataException;
@@ -18,8 +19,10 @@ import ru.practicum.shareit.exception.ObjectNotAvailableException;
 import ru.practicum.shareit.exception.ObjectNotFoundException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemSummaryService;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserRegistry;
 
 import java.time.LocalDateTime;
 import java.util.Optional;
@@ -35,6 +38,10 @@ class BookingServiceTest {
     private ItemRepository mockItemRepository;
     @Mock
     private UserRepository mockUserRepository;
+    @Mock
+    private ItemSummaryService mockItemSummaryService;
+    @Mock
+    private BookingArchiveRepository mockBookingArchiveRepository;
     private final BookingMapper bookingMapper = new BookingMapper();
     private BookingService bookingService;
     private User user;
@@ -43,8 +50,10 @@ class BookingServiceTest {
 
     @BeforeEach
     void beforeEach() {
-        bookingService = new BookingServiceImpl(mockBookingRepository, mockItemRepository, mockUserRepository,
-                bookingMapper);
+        bookingService = new BookingServiceImpl(mockBookingRepository, mockBookingArchiveRepository, mockItemRepository,
+                mockUserRepository, new UserRegistry(mockUserRepository), bookingMapper,
+                new BookingAvailabilityIndex(mockBookingRepository, mockBookingArchiveRepository),
+                mockItemSummaryService);
         user = User.builder()
                 .id(1L)
                 .email("email@mail.ru")
@@ -153,8 +162,8 @@ class BookingServiceTest {
     @Test
     void approveOrRejectBookingThrowExceptionWhenWrongUser() {
         Mockito
-                .when(mockUserRepository.findById(anyLong()))
-                .thenThrow(new ObjectNotFoundException("Пользователь с id 1 не найден"));
+                .when(mockUserRepository.existsById(anyLong()))
+                .thenReturn(false);
 
         ObjectNotFoundException e = assertThrows(ObjectNotFoundException.class,
                 () -> bookingService.approveOrRejectBooking(1, 1, true, AccessLevel.OWNER));
@@ -172,8 +181,8 @@ class BookingServiceTest {
                 .end(LocalDateTime.now().plusDays(2))
                 .build();
         Mockito
-                .when(mockUserRepository.findById(anyLong()))
-                .thenReturn(Optional.ofNullable(user));
+                .when(mockUserRepository.existsById(anyLong()))
+                .thenReturn(true);
         Mockito
                 .when(mockBookingRepository.findById(anyLong()))
                 .thenReturn(Optional.ofNullable(booking));
@@ -197,8 +206,8 @@ class BookingServiceTest {
                 .end(LocalDateTime.now().plusDays(2))
                 .build();
         Mockito
-                .when(mockUserRepository.findById(anyLong()))
-                .thenReturn(Optional.ofNullable(user));
+                .when(mockUserRepository.existsById(anyLong()))
+                .thenReturn(true);
         Mockito
                 .when(mockBookingRepository.findById(anyLong()))
                 .thenReturn(Optional.ofNullable(booking));
@@ -213,8 +222,8 @@ class BookingServiceTest {
     @Test
     void getBookingByIdThrowExceptionWhenWrongUser() {
         Mockito
-                .when(mockUserRepository.findById(anyLong()))
-                .thenThrow(new ObjectNotFoundException("Пользователь с id 1 не найден"));
+                .when(mockUserRepository.existsById(anyLong()))
+                .thenReturn(false);
 
         ObjectNotFoundException e = assertThrows(ObjectNotFoundException.class,
                 () -> bookingService.approveOrRejectBooking(1, 1, true, AccessLevel.OWNER));
@@ -224,8 +233,8 @@ class BookingServiceTest {
     @Test
     void getBookingByIdThrowExceptionWhenBookingNotFound() {
         Mockito
-                .when(mockUserRepository.findById(anyLong()))
-                .thenReturn(Optional.ofNullable(user));
+                .when(mockUserRepository.existsById(anyLong()))
+                .thenReturn(true);
         Mockito
                 .when(mockBookingRepository.findById(anyLong()))
                 .thenThrow(new ObjectNotFoundException("Бронирование с id 1 не найдено"));
@@ -246,8 +255,8 @@ class BookingServiceTest {
                 .end(LocalDateTime.now().plusDays(2))
                 .build();
         Mockito
-                .when(mockUserRepository.findById(anyLong()))
-                .thenReturn(Optional.ofNullable(user));
+                .when(mockUserRepository.existsById(anyLong()))
+                .thenReturn(true);
         Mockito
                 .when(mockBookingRepository.findById(anyLong()))
                 .thenReturn(Optional.ofNullable(booking));
@@ -261,8 +270,8 @@ class BookingServiceTest {
     @Test
     void getBookingsOfCurrentUserThrowExceptionWhenWrongUser() {
         Mockito
-                .when(mockUserRepository.findById(anyLong()))
-                .thenThrow(new ObjectNotFoundException("Пользователь с id 1 не найден"));
+                .when(mockUserRepository.existsById(anyLong()))
+                .thenReturn(false);
 
         ObjectNotFoundException e = assertThrows(ObjectNotFoundException.class,
                 () -> bookingService.approveOrRejectBooking(1, 1, true, AccessLevel.OWNER));
@@ -272,8 +281,8 @@ class BookingServiceTest {
     @Test
     void getBookingsOfOwnerThrowExceptionWhenWrongUser() {
         Mockito
-                .when(mockUserRepository.findById(anyLong()))
-                .thenThrow(new ObjectNotFoundException("Пользователь с id 1 не найден"));
+                .when(mockUserRepository.existsById(anyLong()))
+                .thenReturn(false);
 
         ObjectNotFoundException e = assertThrows(ObjectNotFoundException.class,
                 () -> bookingService.approveOrRejectBooking(1, 1, true, AccessLevel.OWNER));
@@ -0,0 +1,58 @@
+package ru.practicum.shareit.concurrency;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class AdmissionLimitedDataSourceTest {
+
+    @Mock
+    private DataSource mockDataSource;
+    @Mock
+    private Connection mockConnection;
+    private AdmissionLimitedDataSource dataSource;
+
+    @BeforeEach
+    void beforeEach() throws SQLException {
+        Mockito
+                .when(mockDataSource.getConnection())
+                .thenReturn(mockConnection);
+        dataSource = new AdmissionLimitedDataSource(mockDataSource, 1, Duration.ofMillis(50));
+    }
+
+    @Test
+    void shouldRejectConnectionWhenNoPermitsLeft() throws SQLException {
+        Connection connection = dataSource.getConnection();
+
+        SQLTransientConnectionException e = assertThrows(SQLTransientConnectionException.class,
+                dataSource::getConnection);
+        assertEquals("Соединение с БД не получено за 50 мс", e.getMessage(), "не появляется ошибка");
+        connection.close();
+        Mockito.verify(mockDataSource, Mockito.times(1)).getConnection();
+    }
+
+    @Test
+    void shouldReturnPermitOnceOnClose() throws SQLException {
+        Connection connection = dataSource.getConnection();
+        connection.close();
+        connection.close();
+
+        Connection next = dataSource.getConnection();
+        assertThrows(SQLTransientConnectionException.class, dataSource::getConnection,
+                "повторное закрытие вернуло лишнее разрешение");
+        next.close();
+        Mockito.verify(mockConnection, Mockito.times(3)).close();
+    }
+}
@@ -0,0 +1,51 @@
+package ru.practicum.shareit.concurrency;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Ограничитель перед пулом Hikari (без подмены тестовой БД: ограничитель оборачивает только HikariDataSource).
+ * Пока все разрешения заняты, запрос к API не получает соединение и отклоняется ответом 503. Пул больше одного
+ * соединения: Flyway при старте держит несколько.
+ */
+@SpringBootTest(properties = {"shareit.db.admission.enabled=true", "shareit.db.admission.timeout=PT0.1S",
+        "spring.datasource.hikari.maximum-pool-size=" + DataSourceAdmissionLimiterTest.POOL_SIZE})
+@AutoConfigureMockMvc
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class DataSourceAdmissionLimiterTest {
+    static final int POOL_SIZE = 3;
+
+    private final MockMvc mockMvc;
+    private final DataSource dataSource;
+
+    @Test
+    void shouldAnswerServiceUnavailableWhenAdmissionTimesOut() throws Exception {
+        List<Connection> connections = new ArrayList<>();
+        try {
+            for (int i = 0; i < POOL_SIZE; i++) {
+                connections.add(dataSource.getConnection());
+            }
+            mockMvc.perform(get("/users/{userId}", 1))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(jsonPath("$.error", is("Соединение с БД не получено за 100 мс")));
+        } finally {
+            for (Connection connection : connections) {
+                connection.close();
+            }
+        }
+    }
+}
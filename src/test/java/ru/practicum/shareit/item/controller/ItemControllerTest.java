@@ -10,8 +10,12 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import ru.practicum.shareit.item.dto.AvailabilitySlotDto;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Granularity;
+import ru.practicum.shareit.item.model.SearchMode;
 import ru.practicum.shareit.item.service.ItemService;
 
 import java.nio.charset.StandardCharsets;
@@ -118,7 +122,7 @@ class ItemControllerTest {
     void searchItems() throws Exception {
         List<ItemDto> items = new ArrayList<>();
         items.add(itemDto);
-        when(itemService.searchItems(anyString(), anyInt(), anyInt()))
+        when(itemService.searchItems(anyString(), eq(SearchMode.TEXT), anyInt(), anyInt()))
                 .thenReturn(items);
 
         mvc.perform(get("/items/search?text={text}", "Descr"))
@@ -130,6 +134,46 @@ class ItemControllerTest {
                 .andExpect(jsonPath("$.[0].available").value(items.get(0).getAvailable()));
     }
 
+    @Test
+    void searchItemsFuzzy() throws Exception {
+        List<ItemDto> items = new ArrayList<>();
+        items.add(itemDto);
+        when(itemService.searchItems(anyString(), eq(SearchMode.FUZZY), anyInt(), anyInt()))
+                .thenReturn(items);
+
+        mvc.perform(get("/items/search?text={text}&mode={mode}", "Dscr", "fuzzy"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size()").value(1))
+                .andExpect(jsonPath("$.[0].id").value(items.get(0).getId()))
+                .andExpect(jsonPath("$.[0].name").value(items.get(0).getName()))
+                .andExpect(jsonPath("$.[0].description").value(items.get(0).getDescription()))
+                .andExpect(jsonPath("$.[0].available").value(items.get(0).getAvailable()));
+    }
+
+    @Test
+    void getItemAvailability() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 10, 0);
+        ItemAvailabilityDto availability = ItemAvailabilityDto.builder()
+                .itemId(1L)
+                .from(from)
+                .to(from.plusHours(1))
+                .granularity(Granularity.HOUR)
+                .slots(List.of(new AvailabilitySlotDto(from, from.plusHours(1), false)))
+                .build();
+        when(itemService.getItemAvailability(anyLong(), anyLong(), any(), any(), any()))
+                .thenReturn(availability);
+
+        mvc.perform(get("/items/{itemId}/availability", 1)
+                        .param("from", "2030-01-01T10:00:00")
+                        .param("to", "2030-01-01T11:00:00")
+                        .header("X-Sharer-User-Id", 1))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itemId", is(1L), Long.class))
+                .andExpect(jsonPath("$.granularity", is("HOUR")))
+                .andExpect(jsonPath("$.slots.size()").value(1))
+                .andExpect(jsonPath("$.slots[0].free", is(false)));
+    }
+
     @Test
     void removeItem() throws Exception {
         mvc.perform(delete("/items/{itemId}", 1)
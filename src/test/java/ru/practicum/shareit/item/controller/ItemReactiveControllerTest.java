@@ -0,0 +1,80 @@
+package ru.practicum.shareit.item.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import reactor.core.publisher.Flux;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemReactiveService;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+class ItemReactiveControllerTest {
+    @Mock
+    private ItemReactiveService itemService;
+    @InjectMocks
+    private ItemReactiveController itemController;
+    private MockMvc mvc;
+    private ItemDto first;
+    private ItemDto second;
+
+    @BeforeEach
+    void beforeEach() {
+        mvc = MockMvcBuilders
+                .standaloneSetup(itemController)
+                .build();
+        first = ItemDto.builder().id(1L).name("Item1").description("Descr for item1").available(true).build();
+        second = ItemDto.builder().id(2L).name("Item2").description("Descr for item2").available(false).build();
+    }
+
+    @Test
+    void getItemsByOwnerStreamsNdjson() throws Exception {
+        when(itemService.getAllItems(1L, 0, null))
+                .thenReturn(Flux.just(first, second));
+
+        MvcResult result = mvc.perform(get("/v2/items")
+                        .header("X-Sharer-User-Id", 1))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length, "не каждая вещь в отдельной строке");
+        assertEquals(true, lines[0].startsWith("{\"id\":1,"), "неверный порядок вещей");
+        assertEquals(true, lines[1].startsWith("{\"id\":2,"), "неверный порядок вещей");
+    }
+
+    @Test
+    void getItemsByOwnerAsJsonArray() throws Exception {
+        when(itemService.getAllItems(1L, 2, 5))
+                .thenReturn(Flux.just(first));
+
+        MvcResult result = mvc.perform(get("/v2/items")
+                        .header("X-Sharer-User-Id", 1)
+                        .param("from", "2")
+                        .param("size", "5")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()", is(1)))
+                .andExpect(jsonPath("$[0].name", is(first.getName())));
+    }
+}
@@ -48,6 +48,11 @@ class ItemRepositoryTest {
         List<Item> items = repository.findByNameOrDescriptionLike("item", PageRequest.of(0, 1)).stream()
                 .collect(Collectors.toList());
         assertEquals(items.get(0).getName(), "Name");
+
+        item.setAvailable(false);
+        items = repository.findByNameOrDescriptionLike("name", PageRequest.of(0, 1)).stream()
+                .collect(Collectors.toList());
+        assertTrue(items.isEmpty());
     }
 
     @Test
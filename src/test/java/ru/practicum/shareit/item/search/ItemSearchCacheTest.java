@@ -0,0 +1,82 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.SearchMode;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class ItemSearchCacheTest {
+    private final AtomicLong clock = new AtomicLong();
+    private ItemSearchCache cache;
+
+    @BeforeEach
+    void beforeEach() {
+        cache = new ItemSearchCache(2, Duration.ofMinutes(1), clock::get);
+    }
+
+    @Test
+    void getByNormalizedText() {
+        cache.put(SearchMode.TEXT, "Дрель", 0, 10, List.of(1L), cache.version());
+        assertThat(cache.get(SearchMode.TEXT, "  дРЕЛЬ!", 0, 10), contains(1L));
+        assertThat(cache.get(SearchMode.TEXT, "дрель", 10, 10), nullValue());
+        assertThat(cache.get(SearchMode.FUZZY, "дрель", 0, 10), nullValue());
+    }
+
+    @Test
+    void evictByTtlAndSize() {
+        cache.put(SearchMode.TEXT, "дрель", 0, 10, List.of(1L), cache.version());
+        clock.addAndGet(Duration.ofSeconds(61).toNanos());
+        assertThat(cache.get(SearchMode.TEXT, "дрель", 0, 10), nullValue());
+
+        cache.put(SearchMode.TEXT, "дрель", 0, 10, List.of(1L), cache.version());
+        cache.put(SearchMode.TEXT, "отвертка", 0, 10, List.of(2L), cache.version());
+        cache.get(SearchMode.TEXT, "дрель", 0, 10);
+        cache.put(SearchMode.TEXT, "пила", 0, 10, List.of(3L), cache.version());
+        assertThat(cache.size(), equalTo(2));
+        assertThat(cache.get(SearchMode.TEXT, "отвертка", 0, 10), nullValue());
+        assertThat(cache.get(SearchMode.TEXT, "дрель", 0, 10), contains(1L));
+    }
+
+    @Test
+    void invalidateOnlyMatchingQueries() {
+        cache.put(SearchMode.TEXT, "дрель", 0, 10, List.of(1L), cache.version());
+        cache.put(SearchMode.FUZZY, "дрелб", 0, 10, List.of(1L), cache.version());
+        cache.invalidate(Item.builder().name("Отвертка").description("Крестовая").available(true).build());
+        assertThat(cache.size(), equalTo(2));
+
+        cache.invalidate(Item.builder().name("Дрель ударная").description("Новая").available(false).build());
+        assertThat(cache.size(), equalTo(2));
+
+        cache.invalidate(Item.builder().name("Дрель ударная").description("Новая").available(true).build());
+        assertThat(cache.size(), equalTo(0));
+    }
+
+    @Test
+    void invalidateByPreviousContentOfChangedItem() {
+        Item item = Item.builder().name("Дрель").description("Простая").available(true).build();
+        ItemSearchCache.ItemContent previous = ItemSearchCache.ItemContent.of(item);
+        cache.put(SearchMode.TEXT, "дрель", 0, 10, List.of(1L), cache.version());
+        cache.put(SearchMode.TEXT, "перфоратор", 0, 10, List.of(2L), cache.version());
+
+        item.setAvailable(false);
+        cache.invalidate(previous, item);
+        assertThat("Не сброшен запрос, которому вещь соответствовала до изменения",
+                cache.get(SearchMode.TEXT, "дрель", 0, 10), nullValue());
+        assertThat(cache.get(SearchMode.TEXT, "перфоратор", 0, 10), contains(2L));
+    }
+
+    @Test
+    void skipPutWhenInvalidatedDuringSearch() {
+        long version = cache.version();
+        cache.invalidate(Item.builder().name("Дрель").description("Простая").available(true).build());
+        cache.put(SearchMode.TEXT, "дрель", 0, 10, List.of(1L), version);
+        assertThat(cache.get(SearchMode.TEXT, "дрель", 0, 10), nullValue());
+    }
+}
@@ -0,0 +1,122 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@ExtendWith(MockitoExtension.class)
+class ItemSearchIndexTest {
+    @Mock
+    private ItemRepository mockItemRepository;
+    private ItemSearchIndex searchIndex;
+
+    @BeforeEach
+    void beforeEach() {
+        searchIndex = new ItemSearchIndex(mockItemRepository);
+        searchIndex.index(createItem(1L, "Дрель", "Простая дрель", true));
+        searchIndex.index(createItem(2L, "Аккумуляторная отвертка", "Отвертка с набором бит", true));
+        searchIndex.index(createItem(3L, "Отвертки крестовые", "Набор из двух штук", true));
+        searchIndex.index(createItem(4L, "Electric drills", "Drilling kit", true));
+        searchIndex.index(createItem(5L, "Дрель ударная", "Сломана", false));
+    }
+
+    @Test
+    void tokenize() {
+        assertThat(SearchTokenizer.tokenize("Простая ДРЕЛЬ, ёлка!"), contains("прост", "дрел", "елк"));
+        assertThat(SearchTokenizer.tokenize("Electric drills"), contains("electric", "drill"));
+        assertThat(SearchTokenizer.tokenize("  "), empty());
+    }
+
+    @Test
+    void searchByWordForms() {
+        assertThat(searchIndex.search("дРелЬ", 0, 10), contains(1L));
+        assertThat(searchIndex.search("отвертки", 0, 10), contains(2L, 3L));
+        assertThat(searchIndex.search("drill", 0, 10), contains(4L));
+    }
+
+    @Test
+    void searchRequiresAllTermsAndMatchesLastAsPrefix() {
+        assertThat(searchIndex.search("набор отв", 0, 10), containsInAnyOrder(2L, 3L));
+        assertThat(searchIndex.search("простая отвертка", 0, 10), empty());
+        assertThat(searchIndex.search("акк", 0, 10), contains(2L));
+    }
+
+    @Test
+    void searchRanksNameAboveDescription() {
+        searchIndex.index(createItem(6L, "Стремянка", "Подойдет для работы с дрелью", true));
+        assertThat(searchIndex.search("дрель", 0, 10), contains(1L, 6L));
+        assertThat(searchIndex.search("дрель", 1, 10), contains(6L));
+        assertThat(searchIndex.search("дрель", 0, 1), contains(1L));
+    }
+
+    @Test
+    void searchFuzzy() {
+        assertThat(searchIndex.searchFuzzy("крестов", 0, 10), contains(3L));
+        assertThat(searchIndex.searchFuzzy("lectr", 0, 10), contains(4L));
+        assertThat(searchIndex.searchFuzzy("дрелб", 0, 10), contains(1L));
+        assertThat(searchIndex.searchFuzzy("отвёртка", 0, 10), contains(2L, 3L));
+        assertThat(searchIndex.searchFuzzy("пылесос", 0, 10), empty());
+    }
+
+    @Test
+    void updateAndRemove() {
+        searchIndex.index(createItem(1L, "Перфоратор", "Мощный", true));
+        assertThat(searchIndex.search("дрель", 0, 10), empty());
+        assertThat(searchIndex.search("перфоратор", 0, 10), contains(1L));
+
+        searchIndex.index(createItem(5L, "Дрель ударная", "Починили", true));
+        assertThat(searchIndex.search("дрель", 0, 10), contains(5L));
+
+        searchIndex.remove(5L);
+        searchIndex.index(createItem(2L, "Аккумуляторная отвертка", "Отвертка с набором бит", false));
+        assertThat(searchIndex.search("дрель", 0, 10), empty());
+        assertThat(searchIndex.search("отвертка", 0, 10), contains(3L));
+        assertThat(searchIndex.searchFuzzy("дрел", 0, 10), empty());
+    }
+
+    @Test
+    void largeIds() {
+        searchIndex.index(createItem(5_000_000_000L, "Дрель", "Аккумуляторная дрель", true));
+        searchIndex.index(createItem(Long.MAX_VALUE, "Перфоратор", "Мощный", true));
+        assertThat(searchIndex.search("дрель", 0, 10), contains(1L, 5_000_000_000L));
+        assertThat(searchIndex.searchFuzzy("перфоратор", 0, 10), contains(Long.MAX_VALUE));
+
+        searchIndex.remove(5_000_000_000L);
+        assertThat(searchIndex.search("дрель", 0, 10), contains(1L));
+    }
+
+    @Test
+    void pagesMatchFullRanking() {
+        for (long id = 10; id < 40; id++) {
+            searchIndex.index(createItem(id, id % 3 == 0 ? "Дрель дрель" : "Дрель", "Описание " + id, true));
+        }
+        List<Long> all = searchIndex.search("дрель", 0, 100);
+        assertThat(all, hasSize(31));
+        List<Long> paged = new ArrayList<>();
+        for (int from = 0; from < all.size(); from += 4) {
+            paged.addAll(searchIndex.search("дрель", from, 4));
+        }
+        assertThat("Страницы не совпадают с полной выдачей", paged, equalTo(all));
+        assertThat(searchIndex.searchFuzzy("дрель", 5, 3),
+                equalTo(searchIndex.searchFuzzy("дрель", 0, 8).subList(5, 8)));
+    }
+
+    private Item createItem(long id, String name, String description, boolean available) {
+        return Item.builder()
+                .id(id)
+                .name(name)
+                .description(description)
+                .available(available)
+                .build();
+    }
+}
@@ -0,0 +1,112 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.SqlCapture;
+import ru.practicum.shareit.booking.repository.BookingArchiveRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Проверяет кэш второго уровня для User, Item и ItemRequest. Чтения идут без общей транзакции, иначе сущности
+ * отдавал бы контекст персистентности, а не кэш второго уровня. Данные создаются и удаляются в транзакциях.
+ */
+@SpringBootTest(properties = SqlCapture.PROPERTY)
+@AutoConfigureTestDatabase
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class ItemCacheTest {
+    private static final Pattern CACHED_TABLES = Pattern.compile("from (users|items|requests)\\b");
+
+    private final ItemService itemService;
+    private final UserService userService;
+    private final ItemRequestService itemRequestService;
+    private final BookingArchiveRepository bookingArchiveRepository;
+    private final EntityManagerFactory entityManagerFactory;
+    private final TransactionTemplate transactionTemplate;
+    private UserDto owner;
+    private UserDto author;
+    private ItemRequestDto request;
+    private ItemDto item;
+
+    @BeforeEach
+    void beforeEach() {
+        transactionTemplate.executeWithoutResult(status -> {
+            owner = userService.addUser(UserDto.builder().name("owner").email("cache-owner@mail.ru").build());
+            author = userService.addUser(UserDto.builder().name("author").email("cache-author@mail.ru").build());
+            request = itemRequestService.createItemRequest(author.getId(),
+                    ItemRequestDto.builder().description("Нужна дрель").build());
+            item = itemService.addItem(owner.getId(), ItemDto.builder().name("Дрель").description("Простая дрель")
+                    .available(true).requestId(request.getId()).build());
+        });
+    }
+
+    @AfterEach
+    void afterEach() {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (owner != null) {
+                itemService.removeItem(owner.getId(), item.getId());
+                userService.removeUser(owner.getId());
+            }
+            userService.removeUser(author.getId());
+        });
+    }
+
+    @Test
+    void repeatedGetItemByIdDoesNotSelectCachedEntities() {
+        itemService.getItemById(item.getId(), owner.getId());
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        long hits = statistics.getDomainDataRegionStatistics("users").getHitCount();
+
+        SqlCapture.STATEMENTS.clear();
+        for (int i = 0; i < 3; i++) {
+            assertThat(itemService.getItemById(item.getId(), owner.getId()).getRequestId(), equalTo(request.getId()));
+            itemService.getItemById(item.getId(), author.getId());
+        }
+        List<String> selects = SqlCapture.STATEMENTS.stream()
+                .filter(sql -> CACHED_TABLES.matcher(sql).find())
+                .collect(Collectors.toList());
+        assertThat("Закэшированные сущности читаются из базы", selects, empty());
+        assertThat(statistics.getDomainDataRegionStatistics("users").getHitCount() - hits, greaterThanOrEqualTo(6L));
+    }
+
+    @Test
+    void removeUserEvictsCascadedItems() {
+        itemService.getItemById(item.getId(), author.getId());
+        assertThat(entityManagerFactory.getCache().contains(Item.class, item.getId()), is(true));
+
+        userService.removeUser(owner.getId());
+        owner = null;
+        assertThat("Вещь, удалённая каскадом, осталась в кэше",
+                entityManagerFactory.getCache().contains(Item.class, item.getId()), is(false));
+    }
+
+    @Test
+    void archiveCopyKeepsCachedEntities() {
+        itemService.getItemById(item.getId(), owner.getId());
+        assertThat(entityManagerFactory.getCache().contains(Item.class, item.getId()), is(true));
+
+        transactionTemplate.executeWithoutResult(status -> bookingArchiveRepository.copyFromBookings(List.of(0L)));
+        assertThat("Копирование в архив очистило кэш второго уровня",
+                entityManagerFactory.getCache().contains(Item.class, item.getId()), is(true));
+    }
+}
@@ -0,0 +1,65 @@
+package ru.practicum.shareit.item.service;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.ServiceBenchmarkSupport;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.SearchMode;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * searchItems через сервис попадает в кэш результатов, поэтому поиск по индексу и LIKE-запрос
+ * измеряются отдельно.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ItemServiceBenchmark extends ServiceBenchmarkSupport {
+    @Param("дрель")
+    public String text;
+
+    private ItemService itemService;
+    private ItemSearchIndex searchIndex;
+    private ItemRepository itemRepository;
+
+    @Override
+    protected void initServices() {
+        itemService = context.getBean(ItemService.class);
+        searchIndex = context.getBean(ItemSearchIndex.class);
+        itemRepository = context.getBean(ItemRepository.class);
+    }
+
+    @Benchmark
+    public List<ItemDto> getAllItems() {
+        return itemService.getAllItems(CURRENT_USER_ID, 0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<ItemDto> searchItems() {
+        return itemService.searchItems(text, SearchMode.TEXT, 0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<ItemDto> searchItemsFuzzy() {
+        return itemService.searchItems(text, SearchMode.FUZZY, 0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<Long> searchIndex() {
+        return searchIndex.search(text, 0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<Long> searchIndexFuzzy() {
+        return searchIndex.searchFuzzy(text, 0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<Item> searchSqlLike() {
+        return itemRepository.findByNameOrDescriptionLike(text, PageRequest.of(0, PAGE_SIZE)).getContent();
+    }
+}
@@ -8,11 +8,16 @@ import org.springframework.boot.test.context.SpringBootTest;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exception.InvalidDataException;
 import ru.practicum.shareit.exception.ObjectNotAvailableException;
 import ru.practicum.shareit.exception.ObjectNotFoundException;
+import ru.practicum.shareit.item.dto.AvailabilitySlotDto;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Granularity;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.SearchMode;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
@@ -25,7 +30,9 @@ import static org.hamcrest.Matchers.*;
 import javax.transaction.Transactional;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -148,6 +155,47 @@ class ItemServiceImplTest {
         assertThat("Не возвращается пустой список", items.size(), equalTo(2));
     }
 
+    @Test
+    void getAllItemsWithLastAndNextBookings() {
+        User booker = User.builder()
+                .name("NameForUser1")
+                .email("user@mail.ru")
+                .build();
+        userRepository.save(booker);
+        UserDto owner = createUserDto("NameForUser2", "user2@mail.ru");
+        ItemDto itemDto1 = itemService.addItem(owner.getId(), createItemDto("Item1", "Description for item1", true));
+        ItemDto itemDto2 = itemService.addItem(owner.getId(), createItemDto("Item2", "Description for item2", true));
+        Item item1 = itemRepository.findById(itemDto1.getId()).get();
+        Item item2 = itemRepository.findById(itemDto2.getId()).get();
+        LocalDateTime now = LocalDateTime.now();
+        Booking last = saveBooking(booker, item1, now.minusDays(3), now.minusDays(2));
+        Booking next = saveBooking(booker, item1, now.plusDays(1), now.plusDays(2));
+        saveBooking(booker, item1, now.plusDays(5), now.plusDays(6));
+        saveBooking(booker, item2, now.plusDays(3), now.plusDays(4));
+        saveBooking(booker, item2, now.plusDays(7), now.plusDays(8));
+
+        List<ItemDto> items = itemService.getAllItems(owner.getId(), 0, 1);
+        assertThat("Неверная страница вещей", items.size(), equalTo(1));
+        assertThat("Неверное последнее бронирование", items.get(0).getLastBooking().getId(), equalTo(last.getId()));
+        assertThat("Неверное следующее бронирование", items.get(0).getNextBooking().getId(), equalTo(next.getId()));
+
+        items = itemService.getAllItems(owner.getId(), 1, 1);
+        assertThat("Неверная страница вещей", items.get(0).getId(), equalTo(item2.getId()));
+        assertThat("Неверное последнее бронирование", items.get(0).getLastBooking(), nullValue());
+        assertThat("Неверное следующее бронирование", items.get(0).getNextBooking().getStart(),
+                equalTo(now.plusDays(3)));
+
+        itemService.addComment(booker.getId(), item1.getId(), CommentDto.builder().text("Text for Comment").build());
+        items = itemService.getAllItems(owner.getId(), 0, 1);
+        assertThat("Комментарий не попал в список вещей", items.get(0).getComments().size(), equalTo(1));
+        assertThat("Неверное последнее бронирование", items.get(0).getLastBooking().getId(), equalTo(last.getId()));
+
+        ItemDto itemDto = itemService.getItemById(item1.getId(), owner.getId());
+        assertThat("Неверное последнее бронирование", itemDto.getLastBooking().getId(), equalTo(last.getId()));
+        itemDto = itemService.getItemById(item1.getId(), booker.getId());
+        assertThat("Бронирования видны не владельцу", itemDto.getNextBooking(), nullValue());
+    }
+
     @Test
     void searchItems() {
         UserDto userDtoInDB1 = createUserDto("NameForUser1", "user@mail.ru");
@@ -155,9 +203,61 @@ class ItemServiceImplTest {
         ItemDto itemDto1 = createItemDto("Item1", "Description for item1", true);
         itemService.addItem(userDtoInDB1.getId(), drel);
         itemService.addItem(userDtoInDB1.getId(), itemDto1);
-        List<ItemDto> items = itemService.searchItems("дРелЬ", 0, 10);
+        List<ItemDto> items = itemService.searchItems("дРелЬ", SearchMode.TEXT, 0, 10);
         assertThat("Поиск вещи не корректный", items.size(), equalTo(1));
         assertThat("Поиск вещи не корректный", items.get(0).getName(), equalTo("Дрель"));
+
+        items = itemService.searchItems("дрелб", SearchMode.FUZZY, 0, 10);
+        assertThat("Поиск с опечаткой не корректный", items.size(), equalTo(1));
+        assertThat("Поиск с опечаткой не корректный", items.get(0).getName(), equalTo("Дрель"));
+        items = itemService.searchItems("scription", SearchMode.FUZZY, 0, 10);
+        assertThat("Поиск подстроки не корректный", items.size(), equalTo(1));
+        assertThat("Поиск подстроки не корректный", items.get(0).getName(), equalTo("Item1"));
+    }
+
+    @Test
+    void searchItemsAfterUpdate() {
+        UserDto userDtoInDB1 = createUserDto("NameForUser1", "user@mail.ru");
+        ItemDto drel = itemService.addItem(userDtoInDB1.getId(), createItemDto("Дрель", "Простая дрель", true));
+        List<ItemDto> items = itemService.searchItems("дрель", SearchMode.TEXT, 0, 10);
+        assertThat("Поиск вещи не корректный", items.size(), equalTo(1));
+
+        itemService.updateItem(userDtoInDB1.getId(), drel.getId(), ItemDto.builder().name("Перфоратор")
+                .description("Мощный").build());
+        items = itemService.searchItems("дрель", SearchMode.TEXT, 0, 10);
+        assertThat("Результат поиска не обновился", items.size(), equalTo(0));
+        items = itemService.searchItems("перфоратор", SearchMode.TEXT, 0, 10);
+        assertThat("Результат поиска не обновился", items.size(), equalTo(1));
+    }
+
+    @Test
+    void searchItemsAfterOwnerRemoved() {
+        UserDto removed = createUserDto("NameForUser1", "user@mail.ru");
+        UserDto owner = createUserDto("NameForUser2", "user2@mail.ru");
+        for (UserDto user : List.of(removed, removed, owner, owner)) {
+            itemService.addItem(user.getId(), createItemDto("Дрель", "Простая дрель", true));
+        }
+
+        userService.removeUser(removed.getId());
+        userRepository.flush();     // Каскадное удаление вещей выполняет база
+        List<ItemDto> items = itemService.searchItems("дрель", SearchMode.TEXT, 0, 2);
+        assertThat("Вещи удалённого пользователя остались в выдаче поиска", items.size(), equalTo(2));
+    }
+
+    @Test
+    void searchItemsCachedBeforeOwnerRemoved() {
+        UserDto removed = createUserDto("NameForUser1", "user@mail.ru");
+        UserDto owner = createUserDto("NameForUser2", "user2@mail.ru");
+        for (UserDto user : List.of(removed, removed, owner, owner)) {
+            itemService.addItem(user.getId(), createItemDto("Дрель", "Простая дрель", true));
+        }
+        List<ItemDto> items = itemService.searchItems("дрель", SearchMode.TEXT, 0, 2);
+        assertThat("Поиск вещи не корректный", items.size(), equalTo(2));
+
+        userService.removeUser(removed.getId());
+        userRepository.flush();
+        items = itemService.searchItems("дрель", SearchMode.TEXT, 0, 2);
+        assertThat("Кэш поиска отдал вещи удалённого пользователя", items.size(), equalTo(2));
     }
 
     @Test
@@ -167,7 +267,7 @@ class ItemServiceImplTest {
         ItemDto itemDto1 = createItemDto("Item1", "Description for item1", true);
         itemService.addItem(userDtoInDB1.getId(), drel);
         itemService.addItem(userDtoInDB1.getId(), itemDto1);
-        List<ItemDto> items = itemService.searchItems("", 0, 10);
+        List<ItemDto> items = itemService.searchItems("", SearchMode.TEXT, 0, 10);
         assertThat("Поиск вещи не корректный", items.size(), equalTo(0));
     }
 
@@ -249,6 +349,66 @@ class ItemServiceImplTest {
         assertThat("Комментарий возвращаются неверный", commentDtoSaved.getText(), equalTo("Text for Comment"));
     }
 
+    @Test
+    void getItemAvailability() {
+        User booker = User.builder()
+                .name("NameForUser1")
+                .email("user@mail.ru")
+                .build();
+        userRepository.save(booker);
+        UserDto owner = createUserDto("NameForUser2", "user2@mail.ru");
+        ItemDto itemDto = itemService.addItem(owner.getId(), createItemDto("Item1", "Description for item1", true));
+        Item item = itemRepository.findById(itemDto.getId()).get();
+        LocalDateTime from = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+        bookingRepository.save(Booking.builder()
+                .booker(booker)
+                .item(item)
+                .status(Status.WAITING)
+                .start(from.plusHours(2))
+                .end(from.plusHours(4).plusMinutes(30))
+                .build());
+
+        ItemAvailabilityDto availability = itemService.getItemAvailability(owner.getId(), item.getId(),
+                from.plusMinutes(10), from.plusHours(6), Granularity.HOUR);
+        assertThat("Начало периода не выровнено", availability.getFrom(), equalTo(from));
+        assertThat("Неверное число интервалов", availability.getSlots().size(), equalTo(6));
+        assertThat("Неверная занятость интервалов", availability.getSlots().stream()
+                .map(AvailabilitySlotDto::isFree)
+                .collect(Collectors.toList()), contains(true, true, false, false, false, true));
+
+        LocalDateTime past = LocalDateTime.now().minusDays(2).truncatedTo(ChronoUnit.HOURS);
+        bookingRepository.save(Booking.builder()
+                .booker(booker)
+                .item(item)
+                .status(Status.COMPLETED)
+                .start(past.plusHours(1))
+                .end(past.plusHours(2))
+                .build());
+        ItemAvailabilityDto pastAvailability = itemService.getItemAvailability(owner.getId(), item.getId(),
+                past, past.plusHours(3), Granularity.HOUR);
+        assertThat("Прошедшее бронирование не учтено", pastAvailability.getSlots().stream()
+                .map(AvailabilitySlotDto::isFree)
+                .collect(Collectors.toList()), contains(true, false, true));
+
+        assertThrows(InvalidDataException.class, () -> itemService.getItemAvailability(owner.getId(),
+                item.getId(), from, from.minusHours(1), Granularity.HOUR));
+        assertThrows(InvalidDataException.class, () -> itemService.getItemAvailability(owner.getId(),
+                item.getId(), from, from.plusYears(1), Granularity.HOUR));
+        ObjectNotFoundException e = assertThrows(ObjectNotFoundException.class,
+                () -> itemService.getItemAvailability(owner.getId(), 99L, from, from.plusDays(1), Granularity.DAY));
+        assertThat("Нет ошибки при неверном id", e.getMessage(), equalTo("Вещь с id 99 не найдена"));
+    }
+
+    Booking saveBooking(User booker, Item item, LocalDateTime start, LocalDateTime end) {
+        return bookingRepository.save(Booking.builder()
+                .booker(booker)
+                .item(item)
+                .status(Status.APPROVED)
+                .start(start)
+                .end(end)
+                .build());
+    }
+
     UserDto createUserDto(String name, String email) {
         return userService.addUser(UserDto.builder()
                 .email(email)
@@ -8,8 +8,9 @@ import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Sort;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
-import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingArchiveRepository;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingAvailabilityIndex;
 import ru.practicum.shareit.exception.ObjectNotFoundException;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
@@ -18,15 +19,19 @@ import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchCache;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserRegistry;
 
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyLong;
 
 @ExtendWith(MockitoExtension.class)
@@ -36,6 +41,8 @@ class ItemServiceTest {
     private ItemRepository mockItemRepository;
     @Mock
     private BookingRepository mockBookingRepository;
+    @Mock
+    private BookingArchiveRepository mockBookingArchiveRepository;
     private final ItemMapper itemMapper = new ItemMapper();
     private final BookingMapper bookingMapper = new BookingMapper();
     @Mock
@@ -45,6 +52,8 @@ class ItemServiceTest {
     private ItemRequestRepository mockItemRequestRepository;
     @Mock
     private UserRepository mockUserRepository;
+    @Mock
+    private ItemSummaryService mockItemSummaryService;
     private ItemDto itemDto;
     private User user;
     private CommentDto commentDto;
@@ -52,8 +61,11 @@ class ItemServiceTest {
 
     @BeforeEach
     void beforeEach() {
-        itemService = new ItemServiceImpl(mockItemRepository, mockBookingRepository, itemMapper, bookingMapper,
-                mockCommentRepository, commentMapper, mockItemRequestRepository, mockUserRepository);
+        itemService = new ItemServiceImpl(mockItemRepository, mockBookingRepository, mockBookingArchiveRepository,
+                itemMapper, bookingMapper, mockCommentRepository, commentMapper, mockItemRequestRepository,
+                mockUserRepository, new UserRegistry(mockUserRepository),
+                new BookingAvailabilityIndex(mockBookingRepository, mockBookingArchiveRepository),
+                mockItemSummaryService, new ItemSearchIndex(mockItemRepository), new ItemSearchCache());
         itemDto = ItemDto.builder()
                 .id(2L)
                 .name("Name")
@@ -80,8 +92,8 @@ class ItemServiceTest {
     @Test
     void addItemShouldThrowExceptionWhenWrongUser() {
         Mockito
-                .when(mockUserRepository.findById(anyLong()))
-                .thenThrow(new ObjectNotFoundException("Пользователь с id 1 не найден"));
+                .when(mockUserRepository.existsById(anyLong()))
+                .thenReturn(false);
 
         ObjectNotFoundException e = assertThrows(ObjectNotFoundException.class,
                 () -> itemService.addItem(1, itemDto));
@@ -91,8 +103,8 @@ class ItemServiceTest {
     @Test
     void updateItemShouldThrowExceptionWhenWrongUser() {
         Mockito
-                .when(mockUserRepository.findById(anyLong()))
-                .thenThrow(new ObjectNotFoundException("Пользователь с id 1 не найден"));
+                .when(mockUserRepository.existsById(anyLong()))
+                .thenReturn(false);
 
         ObjectNotFoundException e = assertThrows(ObjectNotFoundException.class,
                 () -> itemService.updateItem(1, 1, itemDto));
@@ -102,8 +114,8 @@ class ItemServiceTest {
     @Test
     void updateItemShouldThrowExceptionWhenWrongItemId() {
         Mockito
-                .when(mockUserRepository.findById(anyLong()))
-                .thenReturn(Optional.ofNullable(user));
+                .when(mockUserRepository.existsById(anyLong()))
+                .thenReturn(true);
 
         Mockito
                 .when(mockItemRepository.findById(anyLong()))
@@ -117,8 +129,8 @@ class ItemServiceTest {
     @Test
     void updateItemShouldThrowExceptionWhenItemNotFoundForUser() {
         Mockito
-                .when(mockUserRepository.findById(anyLong()))
-                .thenReturn(Optional.ofNullable(user));
+                .when(mockUserRepository.existsById(anyLong()))
+                .thenReturn(true);
 
         Mockito
                 .when(mockItemRepository.findById(anyLong()))
@@ -132,8 +144,8 @@ class ItemServiceTest {
     @Test
     void getItemByIdShouldThrowExceptionWhenWrongId() {
         Mockito
-                .when(mockUserRepository.findById(anyLong()))
-                .thenReturn(Optional.ofNullable(user));
+                .when(mockUserRepository.existsById(anyLong()))
+                .thenReturn(true);
 
         Mockito
                 .when(mockItemRepository.findById(anyLong()))
@@ -147,8 +159,8 @@ class ItemServiceTest {
     @Test
     void getAllItemsThrowExceptionWhenWrongUser() {
         Mockito
-                .when(mockUserRepository.findById(anyLong()))
-                .thenThrow(new ObjectNotFoundException("Пользователь с id 1 не найден"));
+                .when(mockUserRepository.existsById(anyLong()))
+                .thenReturn(false);
 
         ObjectNotFoundException e = assertThrows(ObjectNotFoundException.class,
                 () -> itemService.getAllItems(1, 1, 10));
@@ -158,8 +170,8 @@ class ItemServiceTest {
     @Test
     void removeItemThrowExceptionWhenWrongUser() {
         Mockito
-                .when(mockUserRepository.findById(anyLong()))
-                .thenThrow(new ObjectNotFoundException("Пользователь с id 1 не найден"));
+                .when(mockUserRepository.existsById(anyLong()))
+                .thenReturn(false);
 
         ObjectNotFoundException e = assertThrows(ObjectNotFoundException.class,
                 () -> itemService.removeItem(1, 1));
@@ -169,8 +181,8 @@ class ItemServiceTest {
     @Test
     void removeItemShouldThrowExceptionWhenWrongItemId() {
         Mockito
-                .when(mockUserRepository.findById(anyLong()))
-                .thenReturn(Optional.ofNullable(user));
+                .when(mockUserRepository.existsById(anyLong()))
+                .thenReturn(true);
 
         Mockito
                 .when(mockItemRepository.findById(anyLong()))
@@ -185,8 +197,8 @@ class ItemServiceTest {
     @Test
     void removeItem() {
         Mockito
-                .when(mockUserRepository.findById(anyLong()))
-                .thenReturn(Optional.ofNullable(user));
+                .when(mockUserRepository.existsById(anyLong()))
+                .thenReturn(true);
 
         Mockito
                 .when(mockItemRepository.findById(anyLong()))
@@ -235,7 +247,7 @@ class ItemServiceTest {
                 .thenReturn(Optional.ofNullable(item));
 
         Mockito
-                .when(mockBookingRepository.findAllByItemIdAndBookerIdAndStatus(anyLong(), anyLong(), any(Status.class),
+                .when(mockBookingRepository.findAllByItemIdAndBookerIdAndStatusIn(anyLong(), anyLong(), anyCollection(),
                         any(Sort.class)))
                 .thenThrow(new ObjectNotFoundException("Пользователь с id 1 не арендовал вещь с id 2."));
 
@@ -0,0 +1,85 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.AdditionalAnswers;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemSummaryRepository;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+
+/**
+ * Пересчёт сводки и параллельная отметка stale. Транзакции общей нет: markStale идёт из другого потока
+ * в своей транзакции, как при настоящей гонке запросов. Данные создаются и удаляются в транзакциях.
+ */
+@SpringBootTest
+@AutoConfigureTestDatabase
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class ItemSummaryServiceImplTest {
+    private final ItemService itemService;
+    private final UserService userService;
+    private final ItemSummaryService itemSummaryService;
+    private final ItemSummaryRepository itemSummaryRepository;
+    private final BookingRepository bookingRepository;
+    private final CommentRepository commentRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final TransactionTemplate transactionTemplate;
+    private UserDto owner;
+    private ItemDto item;
+
+    @BeforeEach
+    void beforeEach() {
+        transactionTemplate.executeWithoutResult(status -> {
+            owner = userService.addUser(UserDto.builder().name("owner").email("summary-owner@mail.ru").build());
+            item = itemService.addItem(owner.getId(), ItemDto.builder().name("Дрель").description("Простая дрель")
+                    .available(true).build());
+        });
+    }
+
+    @AfterEach
+    void afterEach() {
+        transactionTemplate.executeWithoutResult(status -> {
+            itemService.removeItem(owner.getId(), item.getId());
+            userService.removeUser(owner.getId());
+        });
+    }
+
+    @Test
+    void refreshDoesNotOverwriteConcurrentMarkStale() {
+        BookingRepository racingBookingRepository = Mockito.mock(BookingRepository.class,
+                AdditionalAnswers.delegatesTo(bookingRepository));
+        Mockito
+                .doAnswer(invocation -> {
+                    CompletableFuture.runAsync(() -> itemSummaryService.markStale(item.getId())).join();
+                    return bookingRepository.findLastAndNextByItemIdIn(invocation.getArgument(0),
+                            invocation.getArgument(1));
+                })
+                .when(racingBookingRepository).findLastAndNextByItemIdIn(any(), any());
+        ItemSummaryService racingService = new ItemSummaryServiceImpl(itemSummaryRepository,
+                racingBookingRepository, commentRepository, transactionManager);
+
+        racingService.getSummariesByOwner(owner.getId(), 0, 10);
+        assertThat("Пересчёт затёр отметку stale", itemSummaryRepository.findById(item.getId()).get().isStale(),
+                is(true));
+
+        itemSummaryService.getSummariesByOwner(owner.getId(), 0, 10);
+        assertThat("Сводка не пересчитана", itemSummaryRepository.findById(item.getId()).get().isStale(),
+                is(false));
+    }
+}
@@ -0,0 +1,48 @@
+package ru.practicum.shareit.logger;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LogPayloadTest {
+
+    @Test
+    void shouldRenderSmallCollectionAsIs() {
+        List<String> values = List.of("a", "b", "c");
+
+        assertEquals(values.toString(), new LogPayload(values, 100, true).toString(), "список выведен не так");
+    }
+
+    @Test
+    void shouldCapLongCollection() {
+        List<String> values = List.of("aaaa", "bbbb", "cccc", "dddd", "eeee");
+
+        assertEquals("[aaaa, bbb… (ещё элементов: 3)", new LogPayload(values, 10, true).toString(),
+                "список не обрезан");
+    }
+
+    @Test
+    void shouldCapLongString() {
+        assertEquals("abc…", new LogPayload("abcdef", 3, true).toString(), "строка не обрезана");
+    }
+
+    @Test
+    void shouldPrintOnlySizeWhenNotSampled() {
+        assertEquals("<элементов: 2>", new LogPayload(List.of(1, 2), 100, false).toString(),
+                "выведено не только число элементов");
+        assertEquals("<тело пропущено>", new LogPayload("body", 100, false).toString(), "тело не пропущено");
+    }
+
+    @Test
+    void shouldCallSupplierOnlyOnRender() {
+        int[] calls = {0};
+        Supplier<String> supplier = () -> "вызов " + ++calls[0];
+        LogPayload payload = new LogPayload(supplier, 100, true);
+
+        assertEquals(0, calls[0], "тело построено до вывода");
+        assertEquals("вызов 1", payload.toString(), "тело построено неверно");
+    }
+}
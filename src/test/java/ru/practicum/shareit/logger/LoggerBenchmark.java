@@ -0,0 +1,80 @@
+package ru.practicum.shareit.logger;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.AppenderBase;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpMethod;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Phase;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Стоимость одного вызова logSave со страницей бронирований: прежний вариант (toString всей страницы до вызова)
+ * против текущего {@link Logger}. Выделение памяти на вызов смотреть профилировщиком gc:
+ * {@code mvn -Pbenchmark test -Djmh.args="LoggerBenchmark -prof gc"}, метрика gc.alloc.rate.norm.
+ * Сообщения не выводятся: аппендер только форматирует их, как это делает асинхронный аппендер.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class LoggerBenchmark {
+    private static final org.slf4j.Logger legacyLog = LoggerFactory.getLogger(Logger.class);
+
+    @Param({"INFO", "WARN"})
+    public String level;
+    @Param({"20", "1000"})
+    public int pageSize;
+
+    private List<Booking> bookings;
+
+    @Setup
+    public void setUp() {
+        LoggerContext loggerContext = (LoggerContext) LoggerFactory.getILoggerFactory();
+        ch.qos.logback.classic.Logger logger = loggerContext.getLogger(Logger.class);
+        logger.detachAndStopAllAppenders();
+        logger.setAdditive(false);
+        logger.setLevel(Level.toLevel(level));
+        AppenderBase<ILoggingEvent> appender = new AppenderBase<>() {
+            @Override
+            protected void append(ILoggingEvent event) {
+                event.prepareForDeferredProcessing();
+            }
+        };
+        appender.setContext(loggerContext);
+        appender.start();
+        logger.addAppender(appender);
+
+        LocalDateTime now = LocalDateTime.now();
+        User user = new User(1L, "user@mail.ru", "User");
+        Item item = new Item(1L, 2L, "Дрель", "Простая дрель", true, null);
+        bookings = new ArrayList<>(pageSize);
+        for (long i = 1; i <= pageSize; i++) {
+            bookings.add(new Booking(i, item, user, item.getUserId(), Status.APPROVED, now.plusDays(i),
+                    now.plusDays(i + 1), Phase.FUTURE));
+        }
+    }
+
+    @Benchmark
+    public void legacy() {
+        legacyLog.info("По запросу {}{} получен слудющий результат: {}", HttpMethod.GET, "/bookings?state=ALL",
+                bookings.toString());
+    }
+
+    @Benchmark
+    public void current() {
+        Logger.logSave(HttpMethod.GET, "/bookings?state=ALL", bookings);
+    }
+}
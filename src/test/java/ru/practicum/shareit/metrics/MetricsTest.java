@@ -0,0 +1,84 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.model.State;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.ObjectNotFoundException;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.transaction.Transactional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@Transactional
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureMetrics
+@AutoConfigureTestDatabase
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class MetricsTest {
+    private final BookingService bookingService;
+    private final UserService userService;
+    private final MeterRegistry meterRegistry;
+    private final MockMvc mockMvc;
+
+    @Test
+    void shouldTimeServiceMethodsByState() throws Exception {
+        UserDto user = userService.addUser(new UserDto(0, "metrics@mail.ru", "User"));
+        bookingService.getBookingsOfCurrentUser(State.PAST, user.getId(), 0, 10);
+        bookingService.getBookingsOfCurrentUser(State.PAST, user.getId(), 0, 10);
+        assertThrows(ObjectNotFoundException.class,
+                () -> bookingService.getBookingsOfOwner(State.FUTURE, user.getId() + 1000, 0, 10));
+
+        Timer past = meterRegistry.find(ServiceMetricsAspect.METRIC_NAME)
+                .tags("class", "BookingServiceImpl", "method", "getBookingsOfCurrentUser", "state", "PAST",
+                        "exception", "none")
+                .timer();
+        Timer failed = meterRegistry.find(ServiceMetricsAspect.METRIC_NAME)
+                .tags("method", "getBookingsOfOwner", "state", "FUTURE", "exception", "ObjectNotFoundException")
+                .timer();
+        assertThat(past, notNullValue());
+        assertThat(past.count(), equalTo(2L));
+        assertThat(failed, notNullValue());
+        assertThat(failed.count(), equalTo(1L));
+    }
+
+    @Test
+    void shouldRecordRepositoryRows() throws Exception {
+        userService.addUser(new UserDto(0, "rows1@mail.ru", "User1"));
+        userService.addUser(new UserDto(0, "rows2@mail.ru", "User2"));
+        int users = userService.getAllUsers().size();
+
+        assertThat(meterRegistry.find(RepositoryRowsMetrics.METRIC_NAME)
+                .tags("repository", "UserRepository", "method", "findAll")
+                .summary().max(), equalTo((double) users));
+    }
+
+    @Test
+    void shouldExposePrometheusEndpoint() throws Exception {
+        userService.getAllUsers();
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(allOf(
+                        containsString("service_method_seconds_bucket"),
+                        containsString("spring_data_repository_invocations_seconds"),
+                        containsString("repository_rows"),
+                        containsString("hibernate_"))));
+    }
+}
@@ -0,0 +1,50 @@
+package ru.practicum.shareit.metrics;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Превышение бюджета с action=FAIL через настоящий сервлет-контейнер: клиент получает ошибку, а не уже
+ * отправленный ответ 200 с телом.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"shareit.sql.action=FAIL", "shareit.sql.endpoints[/users]=0"})
+@AutoConfigureTestDatabase
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class SqlBudgetFilterContainerTest {
+    private final TestRestTemplate restTemplate;
+    private final UserService userService;
+    private UserDto user;
+
+    @BeforeEach
+    void beforeEach() {
+        user = userService.addUser(UserDto.builder().name("user").email("budget-user@mail.ru").build());
+    }
+
+    @AfterEach
+    void afterEach() {
+        userService.removeUser(user.getId());
+    }
+
+    @Test
+    void exceededBudgetIsNotSentAsOk() {
+        ResponseEntity<String> response = restTemplate.getForEntity("/users", String.class);
+
+        assertThat(response.getStatusCode(), equalTo(HttpStatus.INTERNAL_SERVER_ERROR));
+        assertThat("Клиент получил тело ответа, превысившего бюджет", response.getBody(),
+                not(containsString(user.getEmail())));
+    }
+}
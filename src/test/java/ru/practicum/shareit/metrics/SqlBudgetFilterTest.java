@@ -0,0 +1,83 @@
+package ru.practicum.shareit.metrics;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.transaction.Transactional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+@Transactional
+@SpringBootTest(properties = {"shareit.sql.headers=true", "shareit.sql.action=FAIL"})
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class SqlBudgetFilterTest {
+    private final MockMvc mockMvc;
+    private final UserService userService;
+    private final ItemService itemService;
+    private final SqlBudgetProperties properties;
+
+    @Test
+    void shouldReportSqlCountAndTime() throws Exception {
+        UserDto owner = userService.addUser(UserDto.builder().name("owner").email("owner@mail.ru").build());
+        itemService.addItem(owner.getId(), ItemDto.builder()
+                .name("Item1").description("Description for item1").available(true).build());
+
+        MockHttpServletResponse response = mockMvc.perform(get("/items")
+                        .header("X-Sharer-User-Id", owner.getId()))
+                .andReturn().getResponse();
+
+        assertThat(response.getStatus(), equalTo(200));
+        assertThat(Integer.parseInt(response.getHeader(SqlBudgetFilter.COUNT_HEADER)),
+                allOf(greaterThan(0), lessThanOrEqualTo(properties.getBudget())));
+        assertThat(Double.parseDouble(response.getHeader(SqlBudgetFilter.TIME_HEADER)), greaterThanOrEqualTo(0.0));
+        assertThat(response.getContentAsString(), containsString("Item1"));
+    }
+
+    @Test
+    void shouldFailWhenEndpointExceedsBudget() {
+        properties.getEndpoints().put("/users", 0);
+        try {
+            SqlBudgetExceededException e = assertThrows(SqlBudgetExceededException.class,
+                    () -> mockMvc.perform(get("/users")));
+            assertThat(e.getMessage(), startsWith("GET /users выполнил"));
+        } finally {
+            properties.getEndpoints().remove("/users");
+        }
+    }
+
+    @Test
+    void shouldNotBufferStreamingResponses() throws Exception {
+        UserDto owner = userService.addUser(UserDto.builder().name("owner").email("owner@mail.ru").build());
+
+        MvcResult result = mockMvc.perform(get("/bookings/owner/export")
+                        .header("X-Sharer-User-Id", owner.getId()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MockHttpServletResponse response = mockMvc.perform(asyncDispatch(result))
+                .andReturn().getResponse();
+
+        assertThat(response.getStatus(), equalTo(200));
+        assertThat(response.getContentType(), equalTo(MediaType.APPLICATION_NDJSON_VALUE));
+        assertThat("Потоковый ответ буферизован ради заголовков", response.getHeader(SqlBudgetFilter.COUNT_HEADER),
+                nullValue());
+    }
+}
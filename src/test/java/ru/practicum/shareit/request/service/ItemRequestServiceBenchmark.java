@@ -0,0 +1,48 @@
+package ru.practicum.shareit.request.service;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.ServiceBenchmarkSupport;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Кроме основных данных к одному старому запросу, который не попадает на первую страницу, привязывается
+ * linkedItems вещей. Время получения страницы не должно зависеть от их числа.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ItemRequestServiceBenchmark extends ServiceBenchmarkSupport {
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int linkedItems;
+
+    private ItemRequestService itemRequestService;
+
+    @Override
+    protected void initServices() {
+        itemRequestService = context.getBean(ItemRequestService.class);
+    }
+
+    @Override
+    protected void seedExtra(JdbcTemplate jdbcTemplate) {
+        long requestId = requests + 1;
+        jdbcTemplate.update("insert into requests (id, description, author_id, created) values (?, ?, ?, ?)",
+                requestId, "Старый запрос", CURRENT_USER_ID + 1, Timestamp.valueOf(LocalDateTime.now().minusYears(10)));
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 1; i <= linkedItems; i++) {
+            rows.add(new Object[]{items + i, "Вещь " + i, "Описание", true, CURRENT_USER_ID, requestId});
+        }
+        insert(jdbcTemplate, "insert into items (id, name, description, available, user_id, request_id) " +
+                "values (?, ?, ?, ?, ?, ?)", rows);
+    }
+
+    @Benchmark
+    public List<ItemRequestDto> getAllItemRequests() {
+        return itemRequestService.getAllItemRequests(CURRENT_USER_ID, 0, PAGE_SIZE);
+    }
+}
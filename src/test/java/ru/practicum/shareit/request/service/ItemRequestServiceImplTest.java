@@ -6,6 +6,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.context.SpringBootTest;
 import ru.practicum.shareit.exception.ObjectNotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
@@ -25,6 +27,7 @@ import java.util.List;
 class ItemRequestServiceImplTest {
     private final ItemRequestService itemRequestService;
     private final UserService userService;
+    private final ItemService itemService;
 
     @Test
     void createItemRequest() {
@@ -82,6 +85,31 @@ class ItemRequestServiceImplTest {
         assertThat(requests.get(0).getDescription(), equalTo("Запрос 2"));
     }
 
+    @Test
+    void getAllItemRequestsWithItems() {
+        UserDto userDtoInDB = createUserDto("NameForUser1", "user@mail.ru");
+        UserDto userDtoInDB2 = createUserDto("NameForUser2", "user2@mail.ru");
+        ItemRequestDto request1 = itemRequestService.createItemRequest(userDtoInDB2.getId(),
+                ItemRequestDto.builder().description("Запрос 1").build());
+        ItemRequestDto request2 = itemRequestService.createItemRequest(userDtoInDB2.getId(),
+                ItemRequestDto.builder().description("Запрос 2").build());
+        itemService.addItem(userDtoInDB.getId(), createItemDto("Щётка", request1.getId()));
+        itemService.addItem(userDtoInDB.getId(), createItemDto("Крем", request1.getId()));
+        itemService.addItem(userDtoInDB.getId(), createItemDto("Дрель", request2.getId()));
+
+        List<ItemRequestDto> requests = itemRequestService.getAllItemRequests(userDtoInDB.getId(), 0, 10);
+        assertThat("Список всех запросов возвращается неверно", requests.size(), equalTo(2));
+        ItemRequestDto first = requests.stream().filter(request -> request.getId() == request1.getId())
+                .findFirst().orElseThrow();
+        assertThat("Вещи по запросу возвращаются неверно", first.getItems().size(), equalTo(2));
+        List<ItemRequestDto> pageWithOneRequest = itemRequestService.getAllItemRequests(userDtoInDB.getId(), 0, 1);
+        assertThat("Вещи по запросу возвращаются неверно", pageWithOneRequest.get(0).getItems().size(),
+                equalTo(pageWithOneRequest.get(0).getId() == request1.getId() ? 2 : 1));
+        assertThat("Вещи по запросу возвращаются неверно",
+                itemRequestService.getItemRequestById(userDtoInDB.getId(), request2.getId()).getItems().get(0)
+                        .getName(), equalTo("Дрель"));
+    }
+
     @Test
     void getItemRequestById() {
         UserDto userDtoInDB = createUserDto("NameForUser1", "user@mail.ru");
@@ -107,6 +135,15 @@ class ItemRequestServiceImplTest {
                 equalTo("Пользователь с id 99 не найден"));
     }
 
+    ItemDto createItemDto(String name, long requestId) {
+        return ItemDto.builder()
+                .name(name)
+                .description("Описание")
+                .available(true)
+                .requestId(requestId)
+                .build();
+    }
+
     UserDto createUserDto(String name, String email) {
         return userService.addUser(UserDto.builder()
                 .email(email)
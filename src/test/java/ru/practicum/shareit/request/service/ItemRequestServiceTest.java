@@ -14,8 +14,8 @@ import ru.practicum.shareit.request.mapper.ItemRequestMapper;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserRegistry;
 
-import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -37,7 +37,7 @@ class ItemRequestServiceTest {
         ItemRequestMapper itemRequestMapper = new ItemRequestMapper();
         ItemMapper itemMapper = new ItemMapper();
         itemRequestService = new ItemRequestServiceImpl(mockItemRequestRepository, itemRequestMapper,
-                mockItemRepository, itemMapper, mockUserRepository);
+                mockItemRepository, itemMapper, mockUserRepository, new UserRegistry(mockUserRepository));
         user = User.builder()
                 .id(1L)
                 .email("email@mail.ru")
@@ -62,8 +62,8 @@ class ItemRequestServiceTest {
     @Test
     void getItemRequestsByAuthorShouldThrowExceptionWhenWrongUser() {
         Mockito
-                .when(mockUserRepository.findById(Mockito.anyLong()))
-                .thenThrow(new ObjectNotFoundException("Пользователь с id 1 не найден"));
+                .when(mockUserRepository.existsById(Mockito.anyLong()))
+                .thenReturn(false);
 
         ObjectNotFoundException e = assertThrows(ObjectNotFoundException.class,
                 () -> itemRequestService.getItemRequestsByAuthor(1, 2, 10));
@@ -73,8 +73,8 @@ class ItemRequestServiceTest {
     @Test
     void getItemRequestByIdShouldThrowExceptionWhenWrongUser() {
         Mockito
-                .when(mockUserRepository.findById(Mockito.anyLong()))
-                .thenThrow(new ObjectNotFoundException("Пользователь с id 1 не найден"));
+                .when(mockUserRepository.existsById(Mockito.anyLong()))
+                .thenReturn(false);
 
         ObjectNotFoundException e = assertThrows(ObjectNotFoundException.class,
                 () -> itemRequestService.getItemRequestById(1, 2));
@@ -84,8 +84,8 @@ class ItemRequestServiceTest {
     @Test
     void getItemRequestByIdShouldThrowExceptionWhenWrongRequestId() {
         Mockito
-                .when(mockUserRepository.findById(Mockito.anyLong()))
-                .thenReturn(Optional.ofNullable(user));
+                .when(mockUserRepository.existsById(Mockito.anyLong()))
+                .thenReturn(true);
         Mockito
                 .when(mockItemRequestRepository.findItemRequestById(Mockito.anyLong()))
                 .thenThrow(new ObjectNotFoundException("Запрос с id 2 не найден"));
@@ -0,0 +1,84 @@
+package ru.practicum.shareit.user.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.SliceImpl;
+import ru.practicum.shareit.exception.ObjectNotFoundException;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+
+@ExtendWith(MockitoExtension.class)
+class UserRegistryTest {
+
+    @Mock
+    private UserRepository mockUserRepository;
+    private UserRegistry userRegistry;
+
+    @BeforeEach
+    void beforeEach() {
+        userRegistry = new UserRegistry(mockUserRepository);
+    }
+
+    @Test
+    void existsShouldNotQueryDatabaseAfterWarmUp() {
+        Mockito
+                .when(mockUserRepository.findAllIds(any()))
+                .thenReturn(new SliceImpl<>(List.of(1L, 2L, 3L)));
+        userRegistry.warmUp();
+
+        assertTrue(userRegistry.exists(2L), "пользователь не найден после заполнения");
+        Mockito.verify(mockUserRepository, Mockito.never()).existsById(anyLong());
+    }
+
+    @Test
+    void existsShouldFallBackToDatabaseForUnknownId() {
+        Mockito
+                .when(mockUserRepository.existsById(5L))
+                .thenReturn(true);
+
+        assertTrue(userRegistry.exists(5L), "пользователь из БД не найден");
+        assertTrue(userRegistry.exists(5L), "пользователь из БД не найден");
+        Mockito.verify(mockUserRepository, Mockito.times(1)).existsById(5L);
+    }
+
+    @Test
+    void checkExistsShouldThrowExceptionAfterRemove() {
+        userRegistry.add(1L);
+        userRegistry.remove(1L);
+        Mockito
+                .when(mockUserRepository.existsById(1L))
+                .thenReturn(false);
+
+        ObjectNotFoundException e = assertThrows(ObjectNotFoundException.class,
+                () -> userRegistry.checkExists(1L));
+        assertEquals("Пользователь с id 1 не найден", e.getMessage(), "не появляется ошибка");
+    }
+
+    @Test
+    void existsShouldNotCacheIdReadDuringRemove() {
+        AtomicBoolean deleted = new AtomicBoolean();
+        Mockito
+                .when(mockUserRepository.existsById(1L))
+                .thenAnswer(invocation -> {
+                    if (deleted.getAndSet(true)) {
+                        return false;
+                    }
+                    userRegistry.remove(1L);    // Удаление завершилось, пока шёл запрос к БД
+                    return true;
+                });
+
+        assertTrue(userRegistry.exists(1L), "строка, прочитанная до удаления, не найдена");
+        assertFalse(userRegistry.exists(1L), "удалённый пользователь вернулся в множество");
+        Mockito.verify(mockUserRepository, Mockito.times(2)).existsById(1L);
+    }
+}
@@ -7,9 +7,18 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import ru.practicum.shareit.exception.ObjectNotFoundException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchCache;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import javax.persistence.Cache;
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.anyLong;
 
@@ -20,11 +29,23 @@ class UserServiceTest {
     private UserRepository mockUserRepository;
     @Mock
     private UserMapper mockUserMapper;
+    @Mock
+    private EntityManagerFactory mockEntityManagerFactory;
+    @Mock
+    private Cache mockCache;
+    @Mock
+    private ItemRepository mockItemRepository;
+    @Mock
+    private ItemSearchIndex mockSearchIndex;
+    @Mock
+    private ItemSearchCache mockSearchCache;
     private UserService userService;
 
     @BeforeEach
     void beforeEach() {
-        userService = new UserServiceImpl(mockUserRepository, mockUserMapper);
+        userService = new UserServiceImpl(mockUserRepository, mockUserMapper, mockEntityManagerFactory,
+                new UserRegistry(mockUserRepository), mockItemRepository, mockSearchIndex,
+                mockSearchCache);
     }
 
     @Test
@@ -50,8 +71,23 @@ class UserServiceTest {
 
     @Test
     void removeUser() {
+        Item item = Item.builder().id(5L).userId(1L).build();
+        Mockito
+                .when(mockItemRepository.findAllByUserId(1L))
+                .thenReturn(List.of(item));
+        Mockito
+                .when(mockEntityManagerFactory.getCache())
+                .thenReturn(mockCache);
         userService.removeUser(1L);
         Mockito.verify(mockUserRepository, Mockito.times(1))
                 .deleteById(1L);
+        Mockito.verify(mockCache, Mockito.times(1))
+                .evict(Item.class);
+        Mockito.verify(mockCache, Mockito.times(1))
+                .evict(ItemRequest.class);
+        Mockito.verify(mockSearchIndex, Mockito.times(1))
+                .remove(5L);
+        Mockito.verify(mockSearchCache, Mockito.times(1))
+                .invalidate(item);
     }
 }
\ No newline at end of file